@@ -55,7 +55,7 @@ public class PremiumAppealFragment extends Fragment implements
     });
   }
 
-  @Override public void onFlickableDialogFlicked(FlickableDialogListener.X_DIRECTION xDirection) {
+  @Override public void onFlickableDialogFlicked(int xDirection) {
     switchView.setChecked(false);
   }
 }
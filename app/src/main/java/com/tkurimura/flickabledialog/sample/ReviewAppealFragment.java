@@ -42,26 +42,20 @@ public class ReviewAppealFragment extends Fragment implements FlickableDialogLis
     });
   }
 
-  @Override public void onFlickableDialogFlicked(FlickableDialogListener.X_DIRECTION xDirection) {
+  @Override public void onFlickableDialogFlicked(int xDirection) {
 
     String reviewText;
 
-    switch (xDirection){
-      case LEFT_BOTTOM:
-        reviewText = "Bad";
-        break;
-      case LEFT_TOP:
-        reviewText = "Well";
-        break;
-      case RIGHT_BOTTOM:
-        reviewText = "Good";
-        break;
-      case RIGHT_TOP:
-        reviewText = "Great";
-        break;
-      default:
-        reviewText = "unknown";
-        break;
+    if (xDirection == FlickableDialogListener.X_DIRECTION.LEFT_BOTTOM) {
+      reviewText = "Bad";
+    } else if (xDirection == FlickableDialogListener.X_DIRECTION.LEFT_TOP) {
+      reviewText = "Well";
+    } else if (xDirection == FlickableDialogListener.X_DIRECTION.RIGHT_BOTTOM) {
+      reviewText = "Good";
+    } else if (xDirection == FlickableDialogListener.X_DIRECTION.RIGHT_TOP) {
+      reviewText = "Great";
+    } else {
+      reviewText = "unknown";
     }
 
     Toast.makeText(getContext(), "Appreciated to your ["+ reviewText +"]", Toast.LENGTH_SHORT).show();
@@ -0,0 +1,205 @@
+package com.tkurimura.flickabledialog.sample;
+
+import android.os.SystemClock;
+import android.support.v4.app.Fragment;
+import android.support.v4.app.FragmentManager;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import com.sample.BuildConfig;
+import com.sample.R;
+import com.tkurimura.flickabledialog.FlickableDialog;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Shows, flicks away and dismisses each sample dialog over and over, and reports cycles per
+ * second, allocation per cycle, peak heap and heap retained after the cycles.
+ * Fails when dialogs of finished cycles are not garbage collected.
+ * Skipped unless the number of cycles is given, so that regular unit test runs stay fast.
+ *
+ * ./gradlew :app:testDebugUnitTest --tests '*DialogCycleBenchmark' -PbenchmarkCycles=2000
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class DialogCycleBenchmark {
+
+  private static final int CYCLES = Integer.getInteger("benchmark.cycles", 0);
+  private static final int WARMUP_CYCLES = Math.min(20, CYCLES);
+  // dialogs which may still be referenced by the last frame and the fragment manager
+  private static final int ALLOWED_ALIVE_DIALOGS = 2;
+
+  private interface DialogFactory {
+    FlickableDialog create(Fragment host);
+  }
+
+  private Fragment host;
+
+  @Before public void setUp() {
+    Assume.assumeTrue("run with -PbenchmarkCycles=<cycles>", CYCLES > 0);
+
+    MainActivity activity = Robolectric.setupActivity(MainActivity.class);
+    host = new Fragment();
+    activity.getSupportFragmentManager().beginTransaction().add(host, "host").commit();
+    activity.getSupportFragmentManager().executePendingTransactions();
+  }
+
+  @Test public void premiumAppealDialog() {
+    run("FlickablePremiumAppealDialog", new DialogFactory() {
+      @Override public FlickableDialog create(Fragment host) {
+        return FlickablePremiumAppealDialog.newInstance(host);
+      }
+    });
+  }
+
+  @Test public void reviewAppealDialog() {
+    run("FlickableReviewAppealDialog", new DialogFactory() {
+      @Override public FlickableDialog create(Fragment host) {
+        return FlickableReviewAppealDialog.newInstance();
+      }
+    });
+  }
+
+  @Test public void createMailDialog() {
+    run("create mail dialog", new DialogFactory() {
+      @Override public FlickableDialog create(Fragment host) {
+        return FlickableDialog.newInstance(R.layout.dialog_create_mail);
+      }
+    });
+  }
+
+  private void run(String name, DialogFactory factory) {
+
+    for (int i = 0; i < WARMUP_CYCLES; i++) {
+      cycle(factory.create(host));
+    }
+
+    final long baselineHeap = usedHeapAfterGc();
+    resetPeakHeap();
+
+    final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    final long startAllocated = allocatedBytes(threadBean);
+    final List<WeakReference<FlickableDialog>> dialogs = new ArrayList<>(CYCLES);
+
+    final long start = System.nanoTime();
+    for (int i = 0; i < CYCLES; i++) {
+      final FlickableDialog dialog = factory.create(host);
+      dialogs.add(new WeakReference<>(dialog));
+      cycle(dialog);
+    }
+    final long elapsed = System.nanoTime() - start;
+
+    final String allocatedPerCycle = startAllocated < 0 ? "n/a"
+        : (allocatedBytes(threadBean) - startAllocated) / CYCLES / 1024 + "KB";
+    final long peakHeap = peakHeap();
+    final long retainedHeap = usedHeapAfterGc() - baselineHeap;
+
+    int alive = 0;
+    for (WeakReference<FlickableDialog> dialog : dialogs) {
+      if (dialog.get() != null) alive++;
+    }
+
+    System.out.println(String.format("%s: %d cycles, %.1f cycles/s, %s/cycle allocated,"
+            + " peak heap %s, retained %s after %d cycles, %d dialogs alive",
+        name, CYCLES, CYCLES / (elapsed / 1e9), allocatedPerCycle, peakHeap / 1024 + "KB",
+        retainedHeap / 1024 + "KB", CYCLES, alive));
+
+    assertTrue(name + " leaks " + alive + " dialogs", alive <= ALLOWED_ALIVE_DIALOGS);
+  }
+
+  /**
+   * show the dialog, throw the card to right top and wait until it is dismissed
+   */
+  private void cycle(FlickableDialog dialog) {
+
+    final FragmentManager fragmentManager = host.getChildFragmentManager();
+    dialog.show(fragmentManager, "benchmark");
+    fragmentManager.executePendingTransactions();
+
+    final ViewGroup content = (ViewGroup) dialog.getDialog()
+        .getWindow()
+        .getDecorView()
+        .findViewById(android.R.id.content);
+    final ViewGroup frameLayout = (ViewGroup) content.getChildAt(0);
+    flick(frameLayout.getChildAt(frameLayout.getChildCount() - 1));
+
+    for (int i = 0; i < 500 && dialog.isAdded(); i++) {
+      ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+      fragmentManager.executePendingTransactions();
+    }
+    assertFalse("dialog is not dismissed", dialog.isAdded());
+  }
+
+  private static void flick(View card) {
+    final long downTime = SystemClock.uptimeMillis();
+    final int moves = 10;
+
+    dispatch(card, downTime, downTime, MotionEvent.ACTION_DOWN, 100f, 100f);
+    for (int i = 1; i <= moves; i++) {
+      dispatch(card, downTime, downTime + i * 16, MotionEvent.ACTION_MOVE, 100f + i * 100f,
+          100f - i * 5f);
+    }
+    dispatch(card, downTime, downTime + moves * 16, MotionEvent.ACTION_UP, 1100f, 50f);
+  }
+
+  private static void dispatch(View view, long downTime, long eventTime, int action, float x,
+      float y) {
+    final MotionEvent event = MotionEvent.obtain(downTime, eventTime, action, x, y, 0);
+    view.dispatchTouchEvent(event);
+    event.recycle();
+  }
+
+  private static long usedHeapAfterGc() {
+    final Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      System.runFinalization();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static void resetPeakHeap() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+    }
+  }
+
+  private static long peakHeap() {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+    }
+    return peak;
+  }
+
+  /**
+   * @return -1 when the JVM does not measure allocations
+   */
+  private static long allocatedBytes(ThreadMXBean threadBean) {
+    if (threadBean instanceof com.sun.management.ThreadMXBean) {
+      final com.sun.management.ThreadMXBean hotSpotBean =
+          (com.sun.management.ThreadMXBean) threadBean;
+      if (hotSpotBean.isThreadAllocatedMemorySupported()
+          && hotSpotBean.isThreadAllocatedMemoryEnabled()) {
+        return hotSpotBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+}
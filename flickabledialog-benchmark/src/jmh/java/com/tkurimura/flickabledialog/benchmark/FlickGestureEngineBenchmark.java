@@ -0,0 +1,77 @@
+package com.tkurimura.flickabledialog.benchmark;
+
+import com.tkurimura.flickabledialog.FlickGestureEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of dispatching one touch event through {@link FlickGestureEngine},
+ * the same work FlickableDialog's OnTouchListener does apart from touching the view.
+ * One operation is one event of the synthetic stream.
+ */
+@State(Scope.Thread)
+public class FlickGestureEngineBenchmark {
+
+  @Param({ "60", "120", "240" }) int hz;
+
+  @Param({ "ORIGIN_BACK", "THROW" }) String gesture;
+
+  private FlickStream stream;
+  private FlickGestureEngine engine;
+  private int index;
+
+  @Setup public void setUp() {
+    stream = FlickStream.create(hz, gesture);
+    engine = new FlickGestureEngine();
+    index = 0;
+  }
+
+  @Benchmark public void dispatchEvent(Blackhole blackhole) {
+
+    final int i = index;
+    index = i + 1 == stream.size ? 0 : i + 1;
+
+    final int action = stream.actions[i];
+    final float rawX = stream.rawX[i];
+    final float rawY = stream.rawY[i];
+    final long eventTime = stream.eventTimes[i];
+
+    switch (action) {
+      case FlickStream.ACTION_DOWN:
+        engine.setOffset(0, 0);
+        engine.down(rawX, rawY, FlickStream.CARD_TOP, FlickStream.CARD_HEIGHT);
+        engine.addSample(eventTime, rawX, rawY);
+        break;
+      case FlickStream.ACTION_MOVE:
+        engine.addSample(eventTime, rawX, rawY);
+        engine.move(rawX, rawY);
+        blackhole.consume(engine.getRotation());
+        blackhole.consume(engine.getOffsetX());
+        blackhole.consume(engine.getOffsetY());
+        break;
+      default:
+        engine.addSample(eventTime, rawX, rawY);
+        engine.track(rawX, rawY);
+        break;
+    }
+
+    blackhole.consume(engine.getVerticalPercentage());
+    blackhole.consume(engine.getHorizontalPercentage());
+
+    if (action == FlickStream.ACTION_UP) {
+      if (engine.release(eventTime)) {
+        blackhole.consume(engine.getThrowRotation());
+        blackhole.consume(engine.getThrowTranslationX(400));
+        blackhole.consume(engine.getThrowTranslationY(400));
+        blackhole.consume(engine.getXDirection());
+      } else {
+        blackhole.consume(engine.getDeltaX());
+        blackhole.consume(engine.getDeltaY());
+      }
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.tkurimura.flickabledialog.benchmark;
+
+/**
+ * Synthetic touch stream of a single flick.
+ * ACTION_DOWN, ACTION_MOVE sampled at the touch rate, then ACTION_UP.
+ */
+final class FlickStream {
+
+  // same values as MotionEvent
+  static final int ACTION_DOWN = 0;
+  static final int ACTION_UP = 1;
+  static final int ACTION_MOVE = 2;
+
+  static final float CARD_LEFT = 90f;
+  static final float CARD_TOP = 600f;
+  static final float CARD_WIDTH = 900f;
+  static final float CARD_HEIGHT = 700f;
+
+  private static final float DOWN_X = 540f;
+  private static final float DOWN_Y = 800f;
+  private static final long GESTURE_DURATION_MILLIS = 300;
+
+  final int size;
+  final int[] actions;
+  final long[] eventTimes;
+  final float[] rawX;
+  final float[] rawY;
+
+  private FlickStream(int hz, float distanceX, float distanceY) {
+
+    final int moves = (int) (hz * GESTURE_DURATION_MILLIS / 1000);
+
+    size = moves + 2;
+    actions = new int[size];
+    eventTimes = new long[size];
+    rawX = new float[size];
+    rawY = new float[size];
+
+    actions[0] = ACTION_DOWN;
+    rawX[0] = DOWN_X;
+    rawY[0] = DOWN_Y;
+
+    for (int i = 1; i <= moves; i++) {
+      // decelerating finger like a real flick
+      final float progress = (float) i / moves;
+      final float eased = 1f - (1f - progress) * (1f - progress);
+
+      actions[i] = ACTION_MOVE;
+      eventTimes[i] = i * 1000L / hz;
+      rawX[i] = DOWN_X + distanceX * eased;
+      rawY[i] = DOWN_Y + distanceY * eased;
+    }
+
+    actions[size - 1] = ACTION_UP;
+    eventTimes[size - 1] = eventTimes[size - 2];
+    rawX[size - 1] = rawX[size - 2];
+    rawY[size - 1] = rawY[size - 2];
+  }
+
+  /**
+   * @param hz touch sampling rate
+   * @param gesture ORIGIN_BACK (released inside dismiss threshold) or THROW (released outside)
+   */
+  static FlickStream create(int hz, String gesture) {
+    if ("THROW".equals(gesture)) {
+      return new FlickStream(hz, -900f, 240f);
+    } else if ("ORIGIN_BACK".equals(gesture)) {
+      return new FlickStream(hz, -300f, 80f);
+    }
+    throw new IllegalArgumentException("unknown gesture: " + gesture);
+  }
+}
@@ -0,0 +1,419 @@
+package com.tkurimura.flickabledialog.benchmark;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.ObservableOnSubscribe;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.BiFunction;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import io.reactivex.functions.Function3;
+import io.reactivex.functions.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Baseline: the Rx based touch pipeline of FlickableDialog 0.9.0, ported to plain Java.
+ * View and MotionEvent are replaced with {@link Card} and {@link Event}, animators with
+ * {@link Blackhole}, and the Observable.delay timers waiting for animation end are emitted
+ * immediately since there is no main thread looper on the JVM.
+ * One operation is one event of the synthetic stream.
+ */
+@State(Scope.Thread)
+public class RxFlickChainBenchmark {
+
+  @Param({ "60", "120", "240" }) int hz;
+
+  @Param({ "ORIGIN_BACK", "THROW" }) String gesture;
+
+  private static final float DISMISS_THRESHOLD = 700f;
+  private static final float ROTATE_ANIMATION_EXPONENT = 30f;
+
+  private FlickStream stream;
+  private int index;
+  private Blackhole blackhole;
+
+  private Card card;
+  private Event event;
+  private ObservableEmitter<Pair<Card, Event>> emitter;
+  private Disposable disposable;
+
+  private boolean touchedTopArea;
+  private int previousX;
+  private int previousY;
+  private Integer defaultLeft;
+  private Integer defaultTop;
+
+  @Setup public void setUp(Blackhole blackhole) {
+    this.blackhole = blackhole;
+    stream = FlickStream.create(hz, gesture);
+    index = 0;
+    card = new Card();
+    event = new Event();
+    disposable = createTouchObservable().subscribe(new Consumer<Pair<Card, Event>>() {
+      @Override public void accept(Pair<Card, Event> pair) {
+        // dismiss()
+        RxFlickChainBenchmark.this.blackhole.consume(pair);
+      }
+    });
+  }
+
+  @TearDown public void tearDown() {
+    disposable.dispose();
+  }
+
+  @Benchmark public void dispatchEvent() {
+
+    final int i = index;
+    index = i + 1 == stream.size ? 0 : i + 1;
+
+    event.action = stream.actions[i];
+    event.rawX = stream.rawX[i];
+    event.rawY = stream.rawY[i];
+
+    if (event.action == FlickStream.ACTION_DOWN) {
+      // start every flick from origin
+      card.reset();
+    }
+
+    // OnTouchListener
+    emitter.onNext(Pair.create(card, event));
+  }
+
+  private Observable<Pair<Card, Event>> createTouchObservable() {
+    return Observable.create(new ObservableOnSubscribe<Pair<Card, Event>>() {
+      @Override public void subscribe(ObservableEmitter<Pair<Card, Event>> subscriber) {
+        emitter = subscriber;
+      }
+    }).doOnNext(new Consumer<Pair<Card, Event>>() {
+      @Override public void accept(Pair<Card, Event> viewMotionEventPair) {
+        if (defaultLeft == null || defaultTop == null) {
+          defaultLeft = viewMotionEventPair.first.getLeft();
+          defaultTop = viewMotionEventPair.first.getTop();
+        }
+      }
+    }).doOnNext(new Consumer<Pair<Card, Event>>() {
+      @Override public void accept(Pair<Card, Event> viewMotionEventPair) {
+        final Card rootView = viewMotionEventPair.first;
+        final Event event = viewMotionEventPair.second;
+
+        if (event.getAction() == FlickStream.ACTION_DOWN) {
+          final float height = rootView.getHeight();
+          final float initY = rootView.getY();
+          final float eventRawY = event.getRawY();
+          final float verticalCenter = initY + height / 2;
+
+          touchedTopArea = eventRawY < verticalCenter;
+        }
+      }
+    }).flatMap(new Function<Pair<Card, Event>, Observable<Pair<Card, Event>>>() {
+      @Override public Observable<Pair<Card, Event>> apply(
+          final Pair<Card, Event> viewMotionEventPair) {
+
+        return Observable.zip(Observable.just(viewMotionEventPair)
+            .map(new Function<Pair<Card, Event>, Float>() {
+              @Override public Float apply(Pair<Card, Event> viewMotionEventPair) {
+                return (float) (viewMotionEventPair.first.getLeft() - defaultLeft);
+              }
+            }), Observable.just(viewMotionEventPair)
+            .map(new Function<Pair<Card, Event>, Pair<Integer, Integer>>() {
+              @Override public Pair<Integer, Integer> apply(Pair<Card, Event> viewMotionEventPair) {
+
+                int currentX = (int) viewMotionEventPair.second.getRawX();
+                int currentY = (int) viewMotionEventPair.second.getRawY();
+
+                final int left = viewMotionEventPair.first.getLeft() + (currentX - previousX);
+                final int top = viewMotionEventPair.first.getTop() + (currentY - previousY);
+
+                return Pair.create(left, top);
+              }
+            }), new BiFunction<Float, Pair<Integer, Integer>, Pair<Card, Event>>() {
+          @Override
+          public Pair<Card, Event> apply(Float verticalGap, Pair<Integer, Integer> leftTopPair) {
+            if (viewMotionEventPair.second.getAction() == FlickStream.ACTION_MOVE) {
+              if (touchedTopArea) {
+                viewMotionEventPair.first.setRotation(verticalGap / -ROTATE_ANIMATION_EXPONENT);
+              } else {
+                viewMotionEventPair.first.setRotation(verticalGap / ROTATE_ANIMATION_EXPONENT);
+              }
+
+              Card rootView = viewMotionEventPair.first;
+              rootView.layout(leftTopPair.first, leftTopPair.second,
+                  leftTopPair.first + rootView.getWidth(),
+                  leftTopPair.second + rootView.getHeight());
+            }
+            return viewMotionEventPair;
+          }
+        });
+      }
+    }).doOnNext(new Consumer<Pair<Card, Event>>() {
+      @Override public void accept(Pair<Card, Event> pair) {
+        final Event event = pair.second;
+
+        previousX = (int) event.getRawX();
+        previousY = (int) event.getRawY();
+      }
+    }).flatMap(new Function<Pair<Card, Event>, Observable<Pair<Card, Event>>>() {
+      @Override public Observable<Pair<Card, Event>> apply(final Pair<Card, Event> pair) {
+
+        return Observable.just(pair).map(new Function<Pair<Card, Event>, Card>() {
+          @Override public Card apply(Pair<Card, Event> pair) {
+            return pair.first;
+          }
+        }).map(new Function<Card, Pair<Integer, Integer>>() {
+          @Override public Pair<Integer, Integer> apply(Card rootView) {
+            int deltaX = defaultLeft - rootView.getLeft();
+            int deltaY = defaultTop - rootView.getTop();
+
+            return Pair.create(deltaX, deltaY);
+          }
+        }).doOnNext(new Consumer<Pair<Integer, Integer>>() {
+          @Override public void accept(Pair<Integer, Integer> deltaXYPair) {
+            float percentageX = deltaXYPair.first / DISMISS_THRESHOLD;
+            float percentageY = deltaXYPair.second / DISMISS_THRESHOLD;
+            // onFlicking()
+            blackhole.consume(-percentageX);
+            blackhole.consume(percentageY);
+          }
+        }).map(new Function<Pair<Integer, Integer>, Pair<Card, Event>>() {
+          @Override public Pair<Card, Event> apply(Pair<Integer, Integer> integerIntegerPair) {
+            return pair;
+          }
+        });
+      }
+    }).filter(new Predicate<Pair<Card, Event>>() {
+      @Override public boolean test(Pair<Card, Event> pair) {
+        return pair.second.getAction() == FlickStream.ACTION_UP;
+      }
+    }).flatMap(new Function<Pair<Card, Event>, Observable<Pair<Card, Event>>>() {
+      @Override public Observable<Pair<Card, Event>> apply(final Pair<Card, Event> pair) {
+
+        return Observable.just(pair).map(new Function<Pair<Card, Event>, Card>() {
+          @Override public Card apply(Pair<Card, Event> pair) {
+            return pair.first;
+          }
+        }).map(new Function<Card, Pair<Integer, Integer>>() {
+          @Override public Pair<Integer, Integer> apply(Card rootView) {
+            int deltaX = defaultLeft - rootView.getLeft();
+            int deltaY = defaultTop - rootView.getTop();
+
+            return Pair.create(deltaX, deltaY);
+          }
+        }).flatMap(new Function<Pair<Integer, Integer>, Observable<Pair<Card, Event>>>() {
+          @Override
+          public Observable<Pair<Card, Event>> apply(final Pair<Integer, Integer> deltaXYPair) {
+            if (Math.abs(deltaXYPair.first) > DISMISS_THRESHOLD
+                || Math.abs(deltaXYPair.second) > DISMISS_THRESHOLD) {
+              return Observable.just(deltaXYPair)
+                  .map(new Function<Pair<Integer, Integer>, Pair<Card, Event>>() {
+                    @Override
+                    public Pair<Card, Event> apply(Pair<Integer, Integer> integerIntegerPair) {
+                      return pair;
+                    }
+                  });
+            } else {
+              return Observable.just(deltaXYPair)
+                  .doOnNext(new Consumer<Pair<Integer, Integer>>() {
+                    @Override public void accept(Pair<Integer, Integer> deltaXYPair) {
+                      // origin back animation
+                      blackhole.consume(deltaXYPair.first);
+                      blackhole.consume(deltaXYPair.second);
+                    }
+                  })
+                  .flatMap(new Function<Pair<Integer, Integer>, Observable<?>>() {
+                    @Override
+                    public Observable<?> apply(Pair<Integer, Integer> integerIntegerPair) {
+                      // Observable.just(1).delay(300, MILLISECONDS).observeOn(mainThread())
+                      return Observable.just(1);
+                    }
+                  })
+                  .doOnNext(new Consumer<Object>() {
+                    @Override public void accept(Object o) {
+                      // onOriginBack()
+                      blackhole.consume(o);
+                    }
+                  })
+                  .flatMap(new Function<Object, Observable<Pair<Card, Event>>>() {
+                    @Override public Observable<Pair<Card, Event>> apply(Object o) {
+                      return Observable.empty();
+                    }
+                  });
+            }
+          }
+        });
+      }
+    }).flatMap(new Function<Pair<Card, Event>, Observable<Pair<Card, Event>>>() {
+      @Override public Observable<Pair<Card, Event>> apply(final Pair<Card, Event> pair) {
+        return Observable.just(pair.first).map(new Function<Card, Pair<Integer, Integer>>() {
+          @Override public Pair<Integer, Integer> apply(Card rootView) {
+            int deltaX = defaultLeft - rootView.getLeft();
+            int deltaY = defaultTop - rootView.getTop();
+
+            return Pair.create(deltaX, deltaY);
+          }
+        }).flatMap(new Function<Pair<Integer, Integer>, Observable<Pair<Card, Event>>>() {
+          @Override public Observable<Pair<Card, Event>> apply(
+              Pair<Integer, Integer> integerIntegerPair) {
+            return Observable.zip(Observable.just(integerIntegerPair)
+                    .map(new Function<Pair<Integer, Integer>, Float>() {
+                      @Override public Float apply(Pair<Integer, Integer> deltaXYPair) {
+                        // rotate animation
+                        if (touchedTopArea) {
+                          return deltaXYPair.first / DISMISS_THRESHOLD * 540f;
+                        } else {
+                          return deltaXYPair.first / DISMISS_THRESHOLD * -540f;
+                        }
+                      }
+                    }), Observable.just(integerIntegerPair)
+                    .map(new Function<Pair<Integer, Integer>, Pair<Float, Float>>() {
+                      @Override
+                      public Pair<Float, Float> apply(Pair<Integer, Integer> deltaXYPair) {
+                        // position transit animation
+                        return Pair.create((float) (-10 * deltaXYPair.first),
+                            (float) (-10 * deltaXYPair.second));
+                      }
+                    }), Observable.just(integerIntegerPair)
+                    .map(new Function<Pair<Integer, Integer>, Float>() {
+                      @Override public Float apply(Pair<Integer, Integer> integerIntegerPair) {
+                        // background alpha transit animation
+                        return 0f;
+                      }
+                    }),
+                new Function3<Float, Pair<Float, Float>, Float, Pair<Card, Event>>() {
+                  @Override public Pair<Card, Event> apply(Float rotation,
+                      Pair<Float, Float> translation, Float alpha) {
+                    blackhole.consume(rotation);
+                    blackhole.consume(translation);
+                    blackhole.consume(alpha);
+                    return pair;
+                  }
+                });
+          }
+        });
+      }
+    }).flatMap(new Function<Pair<Card, Event>, Observable<Pair<Card, Event>>>() {
+      @Override
+      public Observable<Pair<Card, Event>> apply(Pair<Card, Event> viewMotionEventPair) {
+        // Observable.just(pair).delay(400, MILLISECONDS).observeOn(mainThread())
+        return Observable.just(viewMotionEventPair);
+      }
+    }).flatMap(new Function<Pair<Card, Event>, Observable<Pair<Card, Event>>>() {
+      @Override
+      public Observable<Pair<Card, Event>> apply(final Pair<Card, Event> viewMotionEventPair) {
+        return Observable.just(viewMotionEventPair.first)
+            .map(new Function<Card, Pair<Integer, Integer>>() {
+              @Override public Pair<Integer, Integer> apply(Card rootView) {
+                int deltaX = defaultLeft - rootView.getLeft();
+                int deltaY = defaultTop - rootView.getTop();
+
+                return Pair.create(deltaX, deltaY);
+              }
+            })
+            .doOnNext(new Consumer<Pair<Integer, Integer>>() {
+              @Override public void accept(Pair<Integer, Integer> integerIntegerPair) {
+                // onFlickableDialogFlicked()
+                blackhole.consume(integerIntegerPair);
+              }
+            })
+            .map(new Function<Pair<Integer, Integer>, Pair<Card, Event>>() {
+              @Override
+              public Pair<Card, Event> apply(Pair<Integer, Integer> integerIntegerPair) {
+                return viewMotionEventPair;
+              }
+            });
+      }
+    });
+  }
+
+  /**
+   * same as android.util.Pair
+   */
+  static final class Pair<F, S> {
+    final F first;
+    final S second;
+
+    private Pair(F first, S second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    static <A, B> Pair<A, B> create(A a, B b) {
+      return new Pair<>(a, b);
+    }
+  }
+
+  /**
+   * stands in for the card View
+   */
+  static final class Card {
+    private int left = (int) FlickStream.CARD_LEFT;
+    private int top = (int) FlickStream.CARD_TOP;
+    private int right = (int) (FlickStream.CARD_LEFT + FlickStream.CARD_WIDTH);
+    private int bottom = (int) (FlickStream.CARD_TOP + FlickStream.CARD_HEIGHT);
+    private float rotation;
+
+    int getLeft() {
+      return left;
+    }
+
+    int getTop() {
+      return top;
+    }
+
+    int getWidth() {
+      return right - left;
+    }
+
+    int getHeight() {
+      return bottom - top;
+    }
+
+    float getY() {
+      return top;
+    }
+
+    void setRotation(float rotation) {
+      this.rotation = rotation;
+    }
+
+    void layout(int l, int t, int r, int b) {
+      left = l;
+      top = t;
+      right = r;
+      bottom = b;
+    }
+
+    void reset() {
+      layout((int) FlickStream.CARD_LEFT, (int) FlickStream.CARD_TOP,
+          (int) (FlickStream.CARD_LEFT + FlickStream.CARD_WIDTH),
+          (int) (FlickStream.CARD_TOP + FlickStream.CARD_HEIGHT));
+      rotation = 0f;
+    }
+  }
+
+  /**
+   * stands in for MotionEvent
+   */
+  static final class Event {
+    private int action;
+    private float rawX;
+    private float rawY;
+
+    int getAction() {
+      return action;
+    }
+
+    float getRawX() {
+      return rawX;
+    }
+
+    float getRawY() {
+      return rawY;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.tkurimura.flickabledialog.rx;
+
+/**
+ * Immutable record of a card flicked out of the deck
+ *
+ * @version 0.10.0
+ * @see RxFlickableDialog#deckFlicks(com.tkurimura.flickabledialog.FlickableDeckDialog)
+ */
+public final class DeckFlick {
+
+  private final int xDirection;
+  private final int position;
+
+  public DeckFlick(int xDirection, int position) {
+    this.xDirection = xDirection;
+    this.position = position;
+  }
+
+  /**
+   * @return LEFT_TOP,RIGHT_TOP,RIGHT_BOTTOM,LEFT_BOTTOM
+   */
+  public int getXDirection() {
+    return xDirection;
+  }
+
+  /**
+   * @return position of the flicked card in the adapter
+   */
+  public int getPosition() {
+    return position;
+  }
+
+  @Override public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof DeckFlick)) return false;
+
+    DeckFlick that = (DeckFlick) o;
+    return xDirection == that.xDirection && position == that.position;
+  }
+
+  @Override public int hashCode() {
+    return 31 * xDirection + position;
+  }
+
+  @Override public String toString() {
+    return "DeckFlick{xDirection=" + xDirection + ", position=" + position + '}';
+  }
+}
@@ -0,0 +1,51 @@
+package com.tkurimura.flickabledialog.rx;
+
+/**
+ * Immutable snapshot of flicking amount
+ *
+ * @version 0.10.0
+ * @see RxFlickableDialog#flickProgress(com.tkurimura.flickabledialog.FlickableDialog)
+ */
+public final class FlickProgress {
+
+  private final float verticalPercentage;
+  private final float horizontalPercentage;
+
+  public FlickProgress(float verticalPercentage, float horizontalPercentage) {
+    this.verticalPercentage = verticalPercentage;
+    this.horizontalPercentage = horizontalPercentage;
+  }
+
+  /**
+   * @return vertical flicking amount(-100 : top, 0 : origin. 100 : bottom)
+   */
+  public float getVerticalPercentage() {
+    return verticalPercentage;
+  }
+
+  /**
+   * @return horizontal flicking amount(-100 : left, 0 : origin. 100 : right)
+   */
+  public float getHorizontalPercentage() {
+    return horizontalPercentage;
+  }
+
+  @Override public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof FlickProgress)) return false;
+
+    FlickProgress that = (FlickProgress) o;
+    return Float.compare(that.verticalPercentage, verticalPercentage) == 0
+        && Float.compare(that.horizontalPercentage, horizontalPercentage) == 0;
+  }
+
+  @Override public int hashCode() {
+    return 31 * Float.floatToIntBits(verticalPercentage)
+        + Float.floatToIntBits(horizontalPercentage);
+  }
+
+  @Override public String toString() {
+    return "FlickProgress{vertical=" + verticalPercentage
+        + ", horizontal=" + horizontalPercentage + '}';
+  }
+}
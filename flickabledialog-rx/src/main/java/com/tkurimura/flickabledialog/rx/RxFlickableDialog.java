@@ -0,0 +1,149 @@
+package com.tkurimura.flickabledialog.rx;
+
+import com.tkurimura.flickabledialog.FlickableDeckDialog;
+import com.tkurimura.flickabledialog.FlickableDialog;
+import com.tkurimura.flickabledialog.FlickableDialogListener;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Emitter;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableEmitter;
+import io.reactivex.FlowableOnSubscribe;
+import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.ObservableOnSubscribe;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Cancellable;
+
+/**
+ * Observables of FlickableDialog callbacks.
+ * Each of them takes the place of the corresponding listener of the dialog, and releases it
+ * when disposed. They complete when the dialog is dismissed.
+ * Subscribe on the main thread before showing the dialog.
+ *
+ * @version 0.10.0
+ */
+public final class RxFlickableDialog {
+
+  private RxFlickableDialog() {}
+
+  /**
+   * @return X direction of flicked card
+   * @see FlickableDialog#setOnFlick(FlickableDialogListener.OnFlickedXDirection)
+   */
+  public static Observable<Integer> flicks(final FlickableDialog dialog) {
+    return Observable.create(new ObservableOnSubscribe<Integer>() {
+      @Override public void subscribe(final ObservableEmitter<Integer> emitter) {
+        dialog.setOnFlick(new FlickableDialogListener.OnFlickedXDirection() {
+          @Override public void onFlickableDialogFlicked(int xDirection) {
+            emitter.onNext(xDirection);
+          }
+        });
+        final FlickableDialogListener.OnDismissed onDismissed = completeOnDismiss(emitter);
+        dialog.addOnDismissed(onDismissed);
+        emitter.setCancellable(new Cancellable() {
+          @Override public void cancel() {
+            dialog.setOnFlick(null);
+            dialog.removeOnDismissed(onDismissed);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Progress of dragging the card, latest wins under backpressure.
+   * Every touch move is offered, and a consumer which cannot keep up receives only
+   * the latest one when it requests more, so the touch thread never waits for it.
+   * To observe on another scheduler without a queue, use
+   * {@link #flickProgress(FlickableDialog, Scheduler)}. The latest one is delivered before
+   * completion on dismiss.
+   *
+   * @see FlickableDialog#setOnFlicking(FlickableDialogListener.OnFlicking)
+   */
+  public static Flowable<FlickProgress> flickProgress(final FlickableDialog dialog) {
+    return Flowable.create(new FlowableOnSubscribe<FlickProgress>() {
+      @Override public void subscribe(final FlowableEmitter<FlickProgress> emitter) {
+        dialog.setOnFlicking(new FlickableDialogListener.OnFlicking() {
+          @Override public void onFlicking(float verticalPercentage, float horizontalPercentage) {
+            emitter.onNext(new FlickProgress(verticalPercentage, horizontalPercentage));
+          }
+        });
+        final FlickableDialogListener.OnDismissed onDismissed = completeOnDismiss(emitter);
+        dialog.addOnDismissed(onDismissed);
+        emitter.setCancellable(new Cancellable() {
+          @Override public void cancel() {
+            dialog.setOnFlicking(null);
+            dialog.removeOnDismissed(onDismissed);
+          }
+        });
+      }
+    }, BackpressureStrategy.LATEST);
+  }
+
+  /**
+   * {@link #flickProgress(FlickableDialog)} delivered on the scheduler one by one,
+   * so at most one snapshot waits for a slow consumer.
+   */
+  public static Flowable<FlickProgress> flickProgress(FlickableDialog dialog,
+      Scheduler scheduler) {
+    return flickProgress(dialog).observeOn(scheduler, false, 1);
+  }
+
+  /**
+   * @return X direction and position in the adapter of each flicked card
+   * @see FlickableDeckDialog#setOnDeckCardFlicked(FlickableDialogListener.OnDeckCardFlicked)
+   */
+  public static Observable<DeckFlick> deckFlicks(final FlickableDeckDialog dialog) {
+    return Observable.create(new ObservableOnSubscribe<DeckFlick>() {
+      @Override public void subscribe(final ObservableEmitter<DeckFlick> emitter) {
+        dialog.setOnDeckCardFlicked(new FlickableDialogListener.OnDeckCardFlicked() {
+          @Override public void onDeckCardFlicked(int xDirection, int position) {
+            emitter.onNext(new DeckFlick(xDirection, position));
+          }
+        });
+        final FlickableDialogListener.OnDismissed onDismissed = completeOnDismiss(emitter);
+        dialog.addOnDismissed(onDismissed);
+        emitter.setCancellable(new Cancellable() {
+          @Override public void cancel() {
+            dialog.setOnDeckCardFlicked(null);
+            dialog.removeOnDismissed(onDismissed);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * @return emits when touched outside or pressed back key
+   * @see FlickableDialog#setOnCancel(FlickableDialogListener.OnCanceled)
+   */
+  public static Observable<Object> cancels(final FlickableDialog dialog) {
+    return Observable.create(new ObservableOnSubscribe<Object>() {
+      @Override public void subscribe(final ObservableEmitter<Object> emitter) {
+        dialog.setOnCancel(new FlickableDialogListener.OnCanceled() {
+          @Override public void onFlickableDialogCanceled() {
+            emitter.onNext(dialog);
+          }
+        });
+        final FlickableDialogListener.OnDismissed onDismissed = completeOnDismiss(emitter);
+        dialog.addOnDismissed(onDismissed);
+        emitter.setCancellable(new Cancellable() {
+          @Override public void cancel() {
+            dialog.setOnCancel(null);
+            dialog.removeOnDismissed(onDismissed);
+          }
+        });
+      }
+    });
+  }
+
+  private static FlickableDialogListener.OnDismissed completeOnDismiss(
+      final Emitter<?> emitter) {
+    return new FlickableDialogListener.OnDismissed() {
+      @Override public void onFlickableDialogDismissed() {
+        emitter.onComplete();
+      }
+    };
+  }
+}
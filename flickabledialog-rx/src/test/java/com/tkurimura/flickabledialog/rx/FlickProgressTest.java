@@ -0,0 +1,97 @@
+package com.tkurimura.flickabledialog.rx;
+
+import android.os.Bundle;
+import android.support.v4.app.FragmentActivity;
+import com.flickabledialog.rx.BuildConfig;
+import com.tkurimura.flickabledialog.FlickableDialog;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subscribers.TestSubscriber;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.tkurimura.flickabledialog.rx.RxFlickableDialogTest.drag;
+import static com.tkurimura.flickabledialog.rx.RxFlickableDialogTest.findTopCard;
+import static com.tkurimura.flickabledialog.rx.RxFlickableDialogTest.runFrames;
+import static com.tkurimura.flickabledialog.rx.RxFlickableDialogTest.show;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlickProgressTest {
+
+  @Test public void withoutRequest_onlyLatestIsKept() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    RecordingDialog dialog = RecordingDialog.create();
+    TestSubscriber<FlickProgress> subscriber = RxFlickableDialog.flickProgress(dialog).test(0);
+    show(activity, dialog);
+
+    drag(findTopCard(dialog), 100f, 100f, 400f, 0f);
+    assertTrue(dialog.delivered.size() > 2);
+    subscriber.assertNoValues();
+
+    subscriber.requestMore(1);
+    subscriber.assertValue(dialog.latest());
+  }
+
+  @Test public void slowScheduler_receivesFirstAndLatest() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    RecordingDialog dialog = RecordingDialog.create();
+    TestScheduler scheduler = new TestScheduler();
+    TestSubscriber<FlickProgress> subscriber =
+        RxFlickableDialog.flickProgress(dialog, scheduler).test();
+    show(activity, dialog);
+
+    drag(findTopCard(dialog), 100f, 100f, 400f, 0f);
+    subscriber.assertNoValues();
+
+    // the one in flight and the latest, the rest are dropped
+    scheduler.triggerActions();
+    subscriber.assertValues(dialog.delivered.get(0), dialog.latest());
+  }
+
+  @Test public void dismiss_completesAfterLatest() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    RecordingDialog dialog = RecordingDialog.create();
+    TestScheduler scheduler = new TestScheduler();
+    TestSubscriber<FlickProgress> subscriber =
+        RxFlickableDialog.flickProgress(dialog, scheduler).test();
+    show(activity, dialog);
+
+    drag(findTopCard(dialog), 100f, 100f, 400f, 0f);
+    dialog.dismiss();
+    runFrames(activity);
+    subscriber.assertNotComplete();
+
+    scheduler.triggerActions();
+    subscriber.assertValues(dialog.delivered.get(0), dialog.latest());
+    subscriber.assertComplete();
+  }
+
+  public static class RecordingDialog extends FlickableDialog {
+
+    final List<FlickProgress> delivered = new ArrayList<>();
+
+    static RecordingDialog create() {
+      Bundle bundle = new Bundle();
+      bundle.putInt(LAYOUT_RESOURCE_KEY, android.R.layout.simple_list_item_1);
+
+      RecordingDialog dialog = new RecordingDialog();
+      dialog.setArguments(bundle);
+      return dialog;
+    }
+
+    // called back with the same amount as the listener
+    @Override public void onFlicking(float verticalPercentage, float horizontalPercentage) {
+      delivered.add(new FlickProgress(verticalPercentage, horizontalPercentage));
+    }
+
+    FlickProgress latest() {
+      return delivered.get(delivered.size() - 1);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.tkurimura.flickabledialog.rx;
+
+import android.os.SystemClock;
+import android.support.v4.app.FragmentActivity;
+import android.view.LayoutInflater;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import com.flickabledialog.rx.BuildConfig;
+import com.tkurimura.flickabledialog.FlickableDeckDialog;
+import com.tkurimura.flickabledialog.FlickableDialog;
+import com.tkurimura.flickabledialog.FlickableDialogListener;
+import io.reactivex.observers.TestObserver;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class RxFlickableDialogTest {
+
+  private static final int DRAG_MOVES = 10;
+
+  @Test public void flicks_emitDirectionAndCompleteOnDismiss() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    FlickableDialog dialog = FlickableDialog.newInstance(android.R.layout.simple_list_item_1);
+    TestObserver<Integer> observer = RxFlickableDialog.flicks(dialog).test();
+    show(activity, dialog);
+
+    flick(findTopCard(dialog), 100f, 100f, 1000f, 50f);
+    runFrames(activity);
+
+    observer.assertValue(FlickableDialogListener.X_DIRECTION.RIGHT_TOP);
+    observer.assertComplete();
+  }
+
+  @Test public void cancels_completeOnDismissWithoutCancel() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    FlickableDialog dialog = FlickableDialog.newInstance(android.R.layout.simple_list_item_1);
+    TestObserver<Object> observer = RxFlickableDialog.cancels(dialog).test();
+    show(activity, dialog);
+
+    observer.assertNotComplete();
+    dialog.dismiss();
+    runFrames(activity);
+
+    observer.assertNoValues();
+    observer.assertComplete();
+  }
+
+  @Test public void disposedStream_isNotCompleted() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    FlickableDialog dialog = FlickableDialog.newInstance(android.R.layout.simple_list_item_1);
+    TestObserver<Integer> observer = RxFlickableDialog.flicks(dialog).test();
+    show(activity, dialog);
+
+    observer.dispose();
+    dialog.dismiss();
+    runFrames(activity);
+
+    observer.assertNotComplete();
+  }
+
+  @Test public void deckFlicks_emitDirectionAndPosition() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    FlickableDeckDialog dialog = FlickableDeckDialog.newInstance();
+    dialog.setAdapter(new TextAdapter(2));
+    TestObserver<DeckFlick> observer = RxFlickableDialog.deckFlicks(dialog).test();
+    show(activity, dialog);
+
+    flick(findTopCard(dialog), 100f, 100f, 1000f, 50f);
+    runFrames(activity);
+    observer.assertNotComplete();
+
+    flick(findTopCard(dialog), 100f, 100f, -800f, 50f);
+    runFrames(activity);
+
+    observer.assertValues(new DeckFlick(FlickableDialogListener.X_DIRECTION.RIGHT_TOP, 0),
+        new DeckFlick(FlickableDialogListener.X_DIRECTION.LEFT_TOP, 1));
+    observer.assertComplete();
+  }
+
+  static void show(FragmentActivity activity, FlickableDialog dialog) {
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+  }
+
+  static void runFrames(FragmentActivity activity) {
+    for (int i = 0; i < 200; i++) {
+      ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+    activity.getSupportFragmentManager().executePendingTransactions();
+  }
+
+  static View findTopCard(FlickableDialog dialog) {
+    ViewGroup content =
+        (ViewGroup) dialog.getDialog().getWindow().getDecorView().findViewById(android.R.id.content);
+    ViewGroup frameLayout = (ViewGroup) content.getChildAt(0);
+    // the card is on the dim
+    return frameLayout.getChildAt(frameLayout.getChildCount() - 1);
+  }
+
+  static void flick(View card, float fromX, float fromY, float toX, float toY) {
+    final long downTime = drag(card, fromX, fromY, toX, toY);
+    dispatch(card, downTime, downTime + DRAG_MOVES * 16, MotionEvent.ACTION_UP, toX, toY);
+  }
+
+  /**
+   * touch down and move without release
+   *
+   * @return down time of the gesture
+   */
+  static long drag(View card, float fromX, float fromY, float toX, float toY) {
+    final long downTime = SystemClock.uptimeMillis();
+
+    dispatch(card, downTime, downTime, MotionEvent.ACTION_DOWN, fromX, fromY);
+    for (int i = 1; i <= DRAG_MOVES; i++) {
+      dispatch(card, downTime, downTime + i * 16, MotionEvent.ACTION_MOVE,
+          fromX + (toX - fromX) * i / DRAG_MOVES, fromY + (toY - fromY) * i / DRAG_MOVES);
+    }
+    return downTime;
+  }
+
+  static void dispatch(View card, long downTime, long eventTime, int action, float x,
+      float y) {
+    MotionEvent event = MotionEvent.obtain(downTime, eventTime, action, x, y, 0);
+    card.dispatchTouchEvent(event);
+    event.recycle();
+  }
+
+  private static class TextAdapter extends FlickableDeckDialog.Adapter {
+    final int count;
+
+    TextAdapter(int count) {
+      this.count = count;
+    }
+
+    @Override public int getCount() {
+      return count;
+    }
+
+    @Override public View onCreateCardView(LayoutInflater inflater, ViewGroup parent) {
+      return inflater.inflate(android.R.layout.simple_list_item_1, parent, false);
+    }
+
+    @Override public void onBindCardView(View cardView, int position) {}
+  }
+}
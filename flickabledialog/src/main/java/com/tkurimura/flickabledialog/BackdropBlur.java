@@ -0,0 +1,179 @@
+package com.tkurimura.flickabledialog;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.view.View;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Captures a view at reduced resolution on the main thread and blurs it on a background thread.
+ * Bitmaps and pixel buffers are reused over dialogs.
+ */
+class BackdropBlur implements Runnable {
+
+  interface Callback {
+    /**
+     * called on the main thread, give the bitmap back with {@link #release(Bitmap)}
+     */
+    void onBlurred(Bitmap bitmap);
+  }
+
+  // captured at 1/8 resolution and blurred by 4 pixels of it
+  static final int DOWNSCALE = 8;
+  static final int RADIUS = 4;
+
+  private static final int POOL_SIZE = 2;
+  private static final ArrayDeque<Bitmap> bitmapPool = new ArrayDeque<>(POOL_SIZE);
+
+  private static ExecutorService executor;
+  private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  // touched only on the blur thread
+  private static int[] pixels = new int[0];
+  private static int[] buffer = new int[0];
+
+  private final Callback callback;
+  private volatile boolean canceled;
+  private Bitmap bitmap;
+
+  private final Runnable deliver = new Runnable() {
+    @Override public void run() {
+      if (canceled) {
+        release(bitmap);
+      } else {
+        callback.onBlurred(bitmap);
+      }
+    }
+  };
+
+  BackdropBlur(Callback callback) {
+    this.callback = callback;
+  }
+
+  /**
+   * capture the source on the main thread and start blurring it
+   */
+  void start(View source) {
+
+    if (source.getWidth() == 0 || source.getHeight() == 0) return;
+
+    final int width = Math.max(1, source.getWidth() / DOWNSCALE);
+    final int height = Math.max(1, source.getHeight() / DOWNSCALE);
+
+    bitmap = acquire(width, height);
+
+    final Canvas canvas = new Canvas(bitmap);
+    canvas.scale(width / (float) source.getWidth(), height / (float) source.getHeight());
+    source.draw(canvas);
+
+    executor().execute(this);
+  }
+
+  /**
+   * the bitmap is given back to the pool instead of being delivered
+   */
+  void cancel() {
+    canceled = true;
+  }
+
+  @Override public void run() {
+
+    if (!canceled) {
+      final int width = bitmap.getWidth();
+      final int height = bitmap.getHeight();
+      final int size = width * height;
+
+      if (pixels.length < size) {
+        pixels = new int[size];
+        buffer = new int[size];
+      }
+
+      bitmap.getPixels(pixels, 0, width, 0, 0, width, height);
+      BoxBlur.blur(pixels, buffer, width, height, RADIUS);
+      bitmap.setPixels(pixels, 0, width, 0, 0, width, height);
+    }
+
+    mainHandler.post(deliver);
+  }
+
+  /**
+   * put the bitmap into the pool, evicting one of another size or else the oldest one, so that
+   * the pool follows the size of the content e.g. after rotation
+   */
+  static void release(Bitmap bitmap) {
+    synchronized (bitmapPool) {
+      if (bitmapPool.size() >= POOL_SIZE) {
+        Bitmap evicted = bitmapPool.peekFirst();
+        for (Bitmap pooled : bitmapPool) {
+          if (pooled.getWidth() != bitmap.getWidth() || pooled.getHeight() != bitmap.getHeight()) {
+            evicted = pooled;
+            break;
+          }
+        }
+        bitmapPool.remove(evicted);
+        evicted.recycle();
+      }
+      bitmapPool.addLast(bitmap);
+    }
+  }
+
+  static boolean isPooled(Bitmap bitmap) {
+    synchronized (bitmapPool) {
+      return bitmapPool.contains(bitmap);
+    }
+  }
+
+  static int poolSize() {
+    synchronized (bitmapPool) {
+      return bitmapPool.size();
+    }
+  }
+
+  static void clearPool() {
+    synchronized (bitmapPool) {
+      for (Bitmap bitmap : bitmapPool) {
+        bitmap.recycle();
+      }
+      bitmapPool.clear();
+    }
+  }
+
+  private static Bitmap acquire(int width, int height) {
+    synchronized (bitmapPool) {
+      for (Bitmap bitmap : bitmapPool) {
+        if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
+          bitmapPool.remove(bitmap);
+          bitmap.eraseColor(0);
+          return bitmap;
+        }
+      }
+    }
+    return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+  }
+
+  static synchronized ExecutorService executor() {
+    if (executor == null) {
+      executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override public Thread newThread(final Runnable runnable) {
+          final Thread thread = new Thread(new Runnable() {
+            @Override public void run() {
+              // do not compete with the main thread and render thread
+              Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+              runnable.run();
+            }
+          }, "FlickableDialogBlur");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return executor;
+  }
+}
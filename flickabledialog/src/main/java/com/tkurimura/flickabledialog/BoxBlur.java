@@ -0,0 +1,65 @@
+package com.tkurimura.flickabledialog;
+
+/**
+ * Blurs ARGB pixels with three passes of box blur, which approximates gaussian blur.
+ * Each pass blurs rows into a transposed buffer, so running it twice blurs both directions.
+ * Buffers are given by the caller and nothing is allocated while blurring.
+ */
+final class BoxBlur {
+
+  private static final int PASSES = 3;
+
+  private BoxBlur() {}
+
+  /**
+   * @param pixels pixels to be blurred in place
+   * @param buffer work buffer as large as pixels
+   * @param radius blur radius in pixels
+   */
+  static void blur(int[] pixels, int[] buffer, int width, int height, int radius) {
+
+    if (radius < 1) return;
+
+    for (int pass = 0; pass < PASSES; pass++) {
+      blurRowsTransposed(pixels, buffer, width, height, radius);
+      blurRowsTransposed(buffer, pixels, height, width, radius);
+    }
+  }
+
+  private static void blurRowsTransposed(int[] in, int[] out, int width, int height,
+      int radius) {
+
+    final int window = radius * 2 + 1;
+    final int last = width - 1;
+
+    for (int y = 0; y < height; y++) {
+      final int row = y * width;
+
+      // sum of the window around x = 0, edges are repeated
+      int a = 0;
+      int r = 0;
+      int g = 0;
+      int b = 0;
+      for (int i = -radius; i <= radius; i++) {
+        final int color = in[row + Math.min(Math.max(i, 0), last)];
+        a += color >>> 24;
+        r += (color >> 16) & 0xff;
+        g += (color >> 8) & 0xff;
+        b += color & 0xff;
+      }
+
+      for (int x = 0; x < width; x++) {
+        out[x * height + y] = (a / window) << 24 | (r / window) << 16 | (g / window) << 8
+            | b / window;
+
+        // slide the window by one pixel
+        final int added = in[row + Math.min(x + radius + 1, last)];
+        final int removed = in[row + Math.max(x - radius, 0)];
+        a += (added >>> 24) - (removed >>> 24);
+        r += ((added >> 16) & 0xff) - ((removed >> 16) & 0xff);
+        g += ((added >> 8) & 0xff) - ((removed >> 8) & 0xff);
+        b += (added & 0xff) - (removed & 0xff);
+      }
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.tkurimura.flickabledialog;
+
+import android.view.Choreographer;
+
+/**
+ * {@link FlickPhysicsAnimator.FrameClock} running on display frames of main thread
+ */
+class ChoreographerFrameClock implements FlickPhysicsAnimator.FrameClock, Choreographer.FrameCallback {
+
+  private FlickPhysicsAnimator.FrameCallback callback;
+
+  @Override public void postFrameCallback(FlickPhysicsAnimator.FrameCallback callback) {
+    this.callback = callback;
+    Choreographer.getInstance().postFrameCallback(this);
+  }
+
+  @Override public void removeFrameCallback(FlickPhysicsAnimator.FrameCallback callback) {
+    if (this.callback == callback) {
+      this.callback = null;
+      Choreographer.getInstance().removeFrameCallback(this);
+    }
+  }
+
+  @Override public void doFrame(long frameTimeNanos) {
+    final FlickPhysicsAnimator.FrameCallback callback = this.callback;
+    this.callback = null;
+    if (callback != null) callback.doFrame(frameTimeNanos);
+  }
+}
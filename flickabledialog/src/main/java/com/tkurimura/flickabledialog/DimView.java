@@ -0,0 +1,34 @@
+package com.tkurimura.flickabledialog;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.support.annotation.ColorInt;
+import android.view.View;
+
+/**
+ * Full-screen dim behind the card drawn with a single fill.
+ * It does not overlap itself, so its alpha is applied to the fill directly
+ * instead of through an offscreen layer.
+ */
+class DimView extends View {
+
+  @ColorInt private int color;
+
+  DimView(Context context) {
+    super(context);
+    setWillNotDraw(false);
+  }
+
+  void setColor(@ColorInt int color) {
+    this.color = color;
+    invalidate();
+  }
+
+  @Override protected void onDraw(Canvas canvas) {
+    canvas.drawColor(color);
+  }
+
+  @Override public boolean hasOverlappingRendering() {
+    return false;
+  }
+}
@@ -0,0 +1,243 @@
+package com.tkurimura.flickabledialog;
+
+import android.animation.TimeInterpolator;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+import android.widget.ImageView;
+
+/**
+ * Binds a property of a view in the card to flicking progress, in place of setting it in
+ * {@link FlickableDialog#onFlicking(float, float)}.
+ * Bound effects are applied together once per frame while the card is dragged and while it
+ * comes back to origin. Alpha, scale, translation and rotation are render properties which
+ * RenderThread applies without redrawing the view, and unchanged values are not set again.
+ *
+ * <pre>{@code
+ * dialog.addFlickEffect(FlickEffect.alpha(icon, 1f, 0f));
+ * dialog.addFlickEffect(FlickEffect.scale(badge, 1f, 1.5f)
+ *     .onQuadrant(FlickableDialogListener.X_DIRECTION.RIGHT_TOP));
+ * }</pre>
+ *
+ * @version 0.10.0
+ */
+public final class FlickEffect {
+
+  /**
+   * vertical flicking amount as {@link FlickableDialog#onFlicking(float, float)}
+   */
+  public static final int VERTICAL = 0;
+  /**
+   * horizontal flicking amount as {@link FlickableDialog#onFlicking(float, float)}
+   */
+  public static final int HORIZONTAL = 1;
+  /**
+   * flicking amount in either direction (0 : origin, 1 : dismiss threshold)
+   */
+  public static final int DISTANCE = 2;
+
+  private static final int QUADRANT = 3;
+
+  private static final int ALPHA = 0;
+  private static final int SCALE = 1;
+  private static final int TRANSLATION_X = 2;
+  private static final int TRANSLATION_Y = 3;
+  private static final int ROTATION = 4;
+  private static final int TINT = 5;
+
+  private final View view;
+  private final int property;
+  private final float fromValue;
+  private final float toValue;
+  @ColorInt private int fromColor;
+  @ColorInt private int toColor;
+
+  private int progress = DISTANCE;
+  private int xDirection;
+  private float fromProgress = 0f;
+  private float toProgress = 1f;
+  @Nullable private TimeInterpolator interpolator;
+
+  // last applied fraction, so that unchanged properties are not set again
+  private float appliedFraction = Float.NaN;
+
+  private FlickEffect(View view, int property, float fromValue, float toValue) {
+    this.view = view;
+    this.property = property;
+    this.fromValue = fromValue;
+    this.toValue = toValue;
+  }
+
+  public static FlickEffect alpha(@NonNull View view, float fromAlpha, float toAlpha) {
+    return new FlickEffect(view, ALPHA, fromAlpha, toAlpha);
+  }
+
+  public static FlickEffect scale(@NonNull View view, float fromScale, float toScale) {
+    return new FlickEffect(view, SCALE, fromScale, toScale);
+  }
+
+  /**
+   * @param fromTranslation translation in pixels
+   * @param toTranslation translation in pixels
+   */
+  public static FlickEffect translationX(@NonNull View view, float fromTranslation,
+      float toTranslation) {
+    return new FlickEffect(view, TRANSLATION_X, fromTranslation, toTranslation);
+  }
+
+  /**
+   * @param fromTranslation translation in pixels
+   * @param toTranslation translation in pixels
+   */
+  public static FlickEffect translationY(@NonNull View view, float fromTranslation,
+      float toTranslation) {
+    return new FlickEffect(view, TRANSLATION_Y, fromTranslation, toTranslation);
+  }
+
+  /**
+   * @param fromRotation rotation in degrees
+   * @param toRotation rotation in degrees
+   */
+  public static FlickEffect rotation(@NonNull View view, float fromRotation, float toRotation) {
+    return new FlickEffect(view, ROTATION, fromRotation, toRotation);
+  }
+
+  /**
+   * tint the image with a color between the colors, which redraws the image view
+   */
+  public static FlickEffect tint(@NonNull ImageView view, @ColorInt int fromColor,
+      @ColorInt int toColor) {
+    final FlickEffect effect = new FlickEffect(view, TINT, 0f, 1f);
+    effect.fromColor = fromColor;
+    effect.toColor = toColor;
+    return effect;
+  }
+
+  /**
+   * @param progress {@link #VERTICAL}, {@link #HORIZONTAL} or {@link #DISTANCE} (default)
+   */
+  public FlickEffect on(int progress) {
+    if (progress < VERTICAL || progress > DISTANCE) {
+      throw new IllegalArgumentException("unknown progress " + progress);
+    }
+    this.progress = progress;
+    return this;
+  }
+
+  /**
+   * follow {@link #DISTANCE} only while the card is in the quadrant, otherwise stay at origin
+   *
+   * @param xDirection LEFT_TOP,RIGHT_TOP,RIGHT_BOTTOM,LEFT_BOTTOM
+   */
+  public FlickEffect onQuadrant(int xDirection) {
+    this.progress = QUADRANT;
+    this.xDirection = xDirection;
+    return this;
+  }
+
+  /**
+   * progress where the property is at from value and to value (default : 0 to 1).
+   * Out of the range the property stays at the nearer end, e.g. range(0, -1) on
+   * {@link #HORIZONTAL} follows only to the other direction.
+   */
+  public FlickEffect range(float fromProgress, float toProgress) {
+    if (fromProgress == toProgress) {
+      throw new IllegalArgumentException("empty range " + fromProgress);
+    }
+    this.fromProgress = fromProgress;
+    this.toProgress = toProgress;
+    return this;
+  }
+
+  /**
+   * @param interpolator curve from from value to to value (default : linear)
+   */
+  public FlickEffect interpolator(@Nullable TimeInterpolator interpolator) {
+    this.interpolator = interpolator;
+    return this;
+  }
+
+  /**
+   * @param horizontal horizontal flicking amount as onFlicking
+   * @param vertical vertical flicking amount as onFlicking
+   * @param xDirection quadrant where the card is
+   */
+  void apply(float horizontal, float vertical, int xDirection) {
+
+    final float value;
+    switch (progress) {
+      case VERTICAL:
+        value = vertical;
+        break;
+      case HORIZONTAL:
+        value = horizontal;
+        break;
+      case DISTANCE:
+        value = Math.max(Math.abs(horizontal), Math.abs(vertical));
+        break;
+      default:
+        value = xDirection == this.xDirection
+            ? Math.max(Math.abs(horizontal), Math.abs(vertical)) : 0f;
+        break;
+    }
+
+    float fraction = (value - fromProgress) / (toProgress - fromProgress);
+    fraction = Math.min(1f, Math.max(0f, fraction));
+    if (interpolator != null) fraction = interpolator.getInterpolation(fraction);
+
+    setFraction(fraction);
+  }
+
+  /**
+   * put the property back to from value, e.g. before the card is reused
+   */
+  void reset() {
+    setFraction(0f);
+  }
+
+  private void setFraction(float fraction) {
+
+    if (fraction == appliedFraction) return;
+    appliedFraction = fraction;
+
+    if (property == TINT) {
+      ((ImageView) view).setColorFilter(blend(fromColor, toColor, fraction),
+          PorterDuff.Mode.SRC_ATOP);
+      return;
+    }
+
+    final float value = fromValue + (toValue - fromValue) * fraction;
+    switch (property) {
+      case ALPHA:
+        view.setAlpha(value);
+        break;
+      case SCALE:
+        view.setScaleX(value);
+        view.setScaleY(value);
+        break;
+      case TRANSLATION_X:
+        view.setTranslationX(value);
+        break;
+      case TRANSLATION_Y:
+        view.setTranslationY(value);
+        break;
+      default:
+        view.setRotation(value);
+        break;
+    }
+  }
+
+  private static int blend(@ColorInt int fromColor, @ColorInt int toColor, float fraction) {
+    return Color.argb(lerp(Color.alpha(fromColor), Color.alpha(toColor), fraction),
+        lerp(Color.red(fromColor), Color.red(toColor), fraction),
+        lerp(Color.green(fromColor), Color.green(toColor), fraction),
+        lerp(Color.blue(fromColor), Color.blue(toColor), fraction));
+  }
+
+  private static int lerp(int from, int to, float fraction) {
+    return Math.round(from + (to - from) * fraction);
+  }
+}
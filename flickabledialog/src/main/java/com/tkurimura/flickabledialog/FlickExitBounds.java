@@ -0,0 +1,63 @@
+package com.tkurimura.flickabledialog;
+
+/**
+ * Geometry of a thrown card against the viewport.
+ * The card is treated as the bounding box of its rotated rectangle, centered at its pivot.
+ */
+final class FlickExitBounds {
+
+  private FlickExitBounds() {}
+
+  /**
+   * @return half width of the bounding box of the card rotated by the degrees
+   */
+  static float halfWidth(float width, float height, float rotation) {
+    final double radians = Math.toRadians(rotation);
+    return (float) (width * Math.abs(Math.cos(radians)) + height * Math.abs(Math.sin(radians)))
+        / 2f;
+  }
+
+  /**
+   * @return half height of the bounding box of the card rotated by the degrees
+   */
+  static float halfHeight(float width, float height, float rotation) {
+    final double radians = Math.toRadians(rotation);
+    return (float) (width * Math.abs(Math.sin(radians)) + height * Math.abs(Math.cos(radians)))
+        / 2f;
+  }
+
+  /**
+   * @return true when no part of the box is inside the viewport from (0, 0)
+   */
+  static boolean isOutside(float centerX, float centerY, float halfWidth, float halfHeight,
+      float viewportWidth, float viewportHeight) {
+    return centerX + halfWidth <= 0f || centerX - halfWidth >= viewportWidth
+        || centerY + halfHeight <= 0f || centerY - halfHeight >= viewportHeight;
+  }
+
+  /**
+   * @param directionX unit vector of the throw
+   * @param directionY unit vector of the throw
+   * @return shortest distance to move the box along the direction until it is outside of the
+   * viewport, or -1 when the direction is zero
+   */
+  static float exitDistance(float centerX, float centerY, float halfWidth, float halfHeight,
+      float directionX, float directionY, float viewportWidth, float viewportHeight) {
+
+    float distance = Float.MAX_VALUE;
+
+    if (directionX > 0f) {
+      distance = Math.min(distance, (viewportWidth + halfWidth - centerX) / directionX);
+    } else if (directionX < 0f) {
+      distance = Math.min(distance, (centerX + halfWidth) / -directionX);
+    }
+    if (directionY > 0f) {
+      distance = Math.min(distance, (viewportHeight + halfHeight - centerY) / directionY);
+    } else if (directionY < 0f) {
+      distance = Math.min(distance, (centerY + halfHeight) / -directionY);
+    }
+
+    if (distance == Float.MAX_VALUE) return -1f;
+    return Math.max(0f, distance);
+  }
+}
@@ -0,0 +1,284 @@
+package com.tkurimura.flickabledialog;
+
+/**
+ * Holds the state of a flick gesture in primitive fields so that touch events can be
+ * processed without allocating.
+ * Offsets are the card translation from its origin (right and bottom are positive).
+ *
+ * @version 0.10.0
+ */
+public class FlickGestureEngine {
+
+  private float dismissThreshold = 700f;
+  private float rotateAnimationExponent = 30f;
+  private float flingVelocityThreshold = 4000f;
+  private float flingMinimumDistance = 16f;
+
+  private final FlickVelocityTracker velocityTracker = new FlickVelocityTracker();
+
+  private boolean touchedTopArea;
+  private int downX;
+  private int downY;
+  private int previousX;
+  private int previousY;
+  private int offsetX;
+  private int offsetY;
+  private float rotation;
+  private boolean releasedByFling;
+  private int exitX;
+  private int exitY;
+
+  public void setDismissThreshold(float dismissThreshold) {
+    this.dismissThreshold = dismissThreshold;
+  }
+
+  public float getDismissThreshold() {
+    return dismissThreshold;
+  }
+
+  public void setRotateAnimationExponent(float rotateAnimationExponent) {
+    this.rotateAnimationExponent = rotateAnimationExponent;
+  }
+
+  /**
+   * @param flingVelocityThreshold velocity in pixels per second over which released card is
+   * thrown even if it is inside dismiss threshold
+   * @param flingMinimumDistance distance in pixels card has to be moved to be thrown by velocity
+   */
+  public void setFlingThreshold(float flingVelocityThreshold, float flingMinimumDistance) {
+    this.flingVelocityThreshold = flingVelocityThreshold;
+    this.flingMinimumDistance = flingMinimumDistance;
+  }
+
+  /**
+   * memorize touched down position
+   *
+   * @param rawX raw x of touch down
+   * @param rawY raw y of touch down
+   * @param cardY y position of the card on screen
+   * @param cardHeight height of the card
+   */
+  public void down(float rawX, float rawY, float cardY, float cardHeight) {
+
+    touchedTopArea = rawY < cardY + cardHeight / 2;
+
+    downX = (int) rawX;
+    downY = (int) rawY;
+    previousX = downX;
+    previousY = downY;
+
+    releasedByFling = false;
+    velocityTracker.clear();
+  }
+
+  /**
+   * memorize touch position for velocity estimation.
+   * Call this for historical samples of a MotionEvent as well as the event itself.
+   *
+   * @param eventTime event time in milliseconds
+   */
+  public void addSample(long eventTime, float rawX, float rawY) {
+    velocityTracker.addSample(eventTime, rawX, rawY);
+  }
+
+  /**
+   * judge if released card is to be thrown by distance or velocity
+   *
+   * @param eventTime event time of ACTION_UP in milliseconds
+   * @return true when card should be thrown
+   */
+  public boolean release(long eventTime) {
+
+    velocityTracker.computeVelocity(eventTime);
+
+    final float velocityX = velocityTracker.getVelocityX();
+    final float velocityY = velocityTracker.getVelocityY();
+
+    // velocity has to be fast enough and heading the same way as the card is moved
+    releasedByFling = !isOverDismissThreshold()
+        && velocityX * velocityX + velocityY * velocityY
+        > flingVelocityThreshold * flingVelocityThreshold
+        && offsetX * offsetX + offsetY * offsetY > flingMinimumDistance * flingMinimumDistance
+        && offsetX * velocityX + offsetY * velocityY > 0;
+
+    exitX = offsetX;
+    exitY = offsetY;
+    if (releasedByFling) {
+      // card goes where the finger is heading
+      exitX += (int) (velocityX / 10);
+      exitY += (int) (velocityY / 10);
+    }
+
+    return releasedByFling || isOverDismissThreshold();
+  }
+
+  public boolean isReleasedByFling() {
+    return releasedByFling;
+  }
+
+  /**
+   * @return velocity at release in pixels per second
+   */
+  public float getVelocityX() {
+    return velocityTracker.getVelocityX();
+  }
+
+  /**
+   * @return velocity at release in pixels per second
+   */
+  public float getVelocityY() {
+    return velocityTracker.getVelocityY();
+  }
+
+  /**
+   * @param durationMillis duration of throwing animation
+   * @return translation from origin the card is thrown toward, the dialog ends throwing
+   * where the card leaves the screen in this direction
+   */
+  public float getThrowTranslationX(long durationMillis) {
+    if (releasedByFling) {
+      return 11 * offsetX + getVelocityX() * durationMillis / 1000f;
+    }
+    return 11 * offsetX;
+  }
+
+  /**
+   * @param durationMillis duration of throwing animation
+   * @return translation from origin the card is thrown toward, the dialog ends throwing
+   * where the card leaves the screen in this direction
+   */
+  public float getThrowTranslationY(long durationMillis) {
+    if (releasedByFling) {
+      return 11 * offsetY + getVelocityY() * durationMillis / 1000f;
+    }
+    return 11 * offsetY;
+  }
+
+  /**
+   * move card with finger
+   */
+  public void move(float rawX, float rawY) {
+
+    final int currentX = (int) rawX;
+    final int currentY = (int) rawY;
+
+    // rotate as touched down position with the offset before this move
+    if (touchedTopArea) {
+      rotation = offsetX / -rotateAnimationExponent;
+    } else {
+      rotation = offsetX / rotateAnimationExponent;
+    }
+
+    offsetX += currentX - previousX;
+    offsetY += currentY - previousY;
+
+    previousX = currentX;
+    previousY = currentY;
+  }
+
+  /**
+   * memorize position of events which do not move card (e.g. ACTION_UP)
+   */
+  public void track(float rawX, float rawY) {
+    previousX = (int) rawX;
+    previousY = (int) rawY;
+  }
+
+  public void setOffset(int offsetX, int offsetY) {
+    this.offsetX = offsetX;
+    this.offsetY = offsetY;
+  }
+
+  public int getOffsetX() {
+    return offsetX;
+  }
+
+  public int getOffsetY() {
+    return offsetY;
+  }
+
+  /**
+   * @return delta amount between origin and current position (origin - current)
+   */
+  public int getDeltaX() {
+    return -offsetX;
+  }
+
+  /**
+   * @return delta amount between origin and current position (origin - current)
+   */
+  public int getDeltaY() {
+    return -offsetY;
+  }
+
+  public int getDownX() {
+    return downX;
+  }
+
+  public int getDownY() {
+    return downY;
+  }
+
+  public boolean isTouchedTopArea() {
+    return touchedTopArea;
+  }
+
+  public float getRotation() {
+    return rotation;
+  }
+
+  /**
+   * @return the value passed to {@link FlickableDialog#onFlicking(float, float)} as horizontal
+   */
+  public float getHorizontalPercentage() {
+    return -(getDeltaX() / dismissThreshold);
+  }
+
+  /**
+   * @return the value passed to {@link FlickableDialog#onFlicking(float, float)} as vertical
+   */
+  public float getVerticalPercentage() {
+    return getDeltaY() / dismissThreshold;
+  }
+
+  /**
+   * judge if flicking amount is over dismiss threshold
+   */
+  public boolean isOverDismissThreshold() {
+    return Math.abs(offsetX) > dismissThreshold || Math.abs(offsetY) > dismissThreshold;
+  }
+
+  /**
+   * @return rotation where throwing animation ends
+   */
+  public float getThrowRotation() {
+    if (touchedTopArea) {
+      return getDeltaX() / dismissThreshold * 540f;
+    } else {
+      return getDeltaX() / dismissThreshold * -540f;
+    }
+  }
+
+  /**
+   * @return flicked direction in categorization of X area, where the card is released to
+   * @see FlickableDialogListener.X_DIRECTION
+   */
+  public int getXDirection() {
+    final int deltaX = -exitX;
+    final int deltaY = -exitY;
+
+    if (deltaX > 0) {
+      if (deltaY < 0) {
+        return FlickableDialogListener.X_DIRECTION.LEFT_BOTTOM;
+      } else {
+        return FlickableDialogListener.X_DIRECTION.LEFT_TOP;
+      }
+    } else {
+      if (deltaY < 0) {
+        return FlickableDialogListener.X_DIRECTION.RIGHT_BOTTOM;
+      } else {
+        return FlickableDialogListener.X_DIRECTION.RIGHT_TOP;
+      }
+    }
+  }
+}
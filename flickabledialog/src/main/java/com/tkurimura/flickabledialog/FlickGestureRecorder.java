@@ -0,0 +1,116 @@
+package com.tkurimura.flickabledialog;
+
+import android.support.annotation.Nullable;
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * Collects touch events of a gesture into a {@link FlickGestureTrace}.
+ * Buffers grow once and are reused over gestures, only the finished trace is copied out.
+ */
+class FlickGestureRecorder {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private int target;
+  private float originX;
+  private float originY;
+
+  private int eventCount;
+  private byte[] actions = new byte[INITIAL_CAPACITY];
+  private int[] eventTimes = new int[INITIAL_CAPACITY];
+  private float[] rawXs = new float[INITIAL_CAPACITY];
+  private float[] rawYs = new float[INITIAL_CAPACITY];
+  private int[] historyStarts = new int[INITIAL_CAPACITY + 1];
+
+  private int sampleCount;
+  private int[] historicalTimes = new int[INITIAL_CAPACITY];
+  private float[] historicalXs = new float[INITIAL_CAPACITY];
+  private float[] historicalYs = new float[INITIAL_CAPACITY];
+
+  /**
+   * record an event the view receives
+   *
+   * @param target {@link FlickGestureTrace#TARGET_CARD} or {@link FlickGestureTrace#TARGET_OUTSIDE}
+   * @return the trace when the event ends the gesture, otherwise null
+   */
+  @Nullable FlickGestureTrace onTouchEvent(int target, View view, MotionEvent event) {
+
+    final int action = event.getActionMasked();
+    if (action == MotionEvent.ACTION_DOWN) {
+      begin(target, view.getLeft(), view.getTop());
+    } else if (eventCount == 0) {
+      // touched down before recording started
+      return null;
+    }
+
+    final long downTime = event.getDownTime();
+    for (int i = 0, size = event.getHistorySize(); i < size; i++) {
+      addHistoricalSample((int) (event.getHistoricalEventTime(i) - downTime),
+          event.getHistoricalX(i) - event.getX(), event.getHistoricalY(i) - event.getY());
+    }
+    addEvent(action, (int) (event.getEventTime() - downTime), event.getRawX(), event.getRawY());
+
+    if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+      final FlickGestureTrace trace = build();
+      eventCount = 0;
+      return trace;
+    }
+    return null;
+  }
+
+  void begin(int target, float originX, float originY) {
+    this.target = target;
+    this.originX = originX;
+    this.originY = originY;
+    eventCount = 0;
+    sampleCount = 0;
+    historyStarts[0] = 0;
+  }
+
+  /**
+   * add a historical sample of the event added next
+   *
+   * @param x x relative to the event
+   * @param y y relative to the event
+   */
+  void addHistoricalSample(int eventTime, float x, float y) {
+    if (sampleCount == historicalTimes.length) {
+      final int capacity = sampleCount * 2;
+      historicalTimes = Arrays.copyOf(historicalTimes, capacity);
+      historicalXs = Arrays.copyOf(historicalXs, capacity);
+      historicalYs = Arrays.copyOf(historicalYs, capacity);
+    }
+    historicalTimes[sampleCount] = eventTime;
+    historicalXs[sampleCount] = x;
+    historicalYs[sampleCount] = y;
+    sampleCount++;
+  }
+
+  void addEvent(int action, int eventTime, float rawX, float rawY) {
+    if (eventCount == actions.length) {
+      final int capacity = eventCount * 2;
+      actions = Arrays.copyOf(actions, capacity);
+      eventTimes = Arrays.copyOf(eventTimes, capacity);
+      rawXs = Arrays.copyOf(rawXs, capacity);
+      rawYs = Arrays.copyOf(rawYs, capacity);
+      historyStarts = Arrays.copyOf(historyStarts, capacity + 1);
+    }
+    actions[eventCount] = (byte) action;
+    eventTimes[eventCount] = eventTime;
+    rawXs[eventCount] = rawX;
+    rawYs[eventCount] = rawY;
+    eventCount++;
+    historyStarts[eventCount] = sampleCount;
+  }
+
+  FlickGestureTrace build() {
+    return new FlickGestureTrace(target, originX, originY, eventCount,
+        Arrays.copyOf(actions, eventCount), Arrays.copyOf(eventTimes, eventCount),
+        Arrays.copyOf(rawXs, eventCount), Arrays.copyOf(rawYs, eventCount),
+        Arrays.copyOf(historyStarts, eventCount + 1), Arrays.copyOf(historicalTimes, sampleCount),
+        Arrays.copyOf(historicalXs, sampleCount), Arrays.copyOf(historicalYs, sampleCount));
+  }
+}
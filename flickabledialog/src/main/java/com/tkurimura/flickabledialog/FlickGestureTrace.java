@@ -0,0 +1,195 @@
+package com.tkurimura.flickabledialog;
+
+import android.support.annotation.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Touch events of a single gesture on a FlickableDialog, from touch down to release or cancel,
+ * in a compact binary form to be replayed later.
+ * Each event keeps its action, time, raw position and the historical samples batched into it.
+ *
+ * <pre>
+ * int   magic "FDGT"
+ * byte  version
+ * byte  target ({@link #TARGET_CARD} or {@link #TARGET_OUTSIDE})
+ * float origin x, origin y of the card layout when touched down
+ * int   event count
+ * event count times:
+ *   byte  action
+ *   int   event time in milliseconds since touch down
+ *   float raw x, raw y
+ *   short historical sample count
+ *   historical sample count times:
+ *     int   event time in milliseconds since touch down
+ *     float x, y relative to the event
+ * </pre>
+ *
+ * @version 0.10.0
+ * @see FlickableDialog#setOnGestureRecorded(Listener)
+ */
+public final class FlickGestureTrace {
+
+  public interface Listener {
+    /**
+     * called on every touch release or cancel while recording
+     */
+    void onGestureRecorded(FlickGestureTrace trace);
+  }
+
+  /**
+   * the gesture is on the card
+   */
+  public static final int TARGET_CARD = 0;
+  /**
+   * the gesture is outside of the card, e.g. a tap to cancel
+   */
+  public static final int TARGET_OUTSIDE = 1;
+
+  private static final int MAGIC = 0x46444754;
+  private static final int VERSION = 1;
+
+  final int target;
+  final float originX;
+  final float originY;
+
+  final int eventCount;
+  final byte[] actions;
+  final int[] eventTimes;
+  final float[] rawXs;
+  final float[] rawYs;
+  // historical samples of event i are from historyStarts[i] until historyStarts[i + 1]
+  final int[] historyStarts;
+  final int[] historicalTimes;
+  final float[] historicalXs;
+  final float[] historicalYs;
+
+  FlickGestureTrace(int target, float originX, float originY, int eventCount, byte[] actions,
+      int[] eventTimes, float[] rawXs, float[] rawYs, int[] historyStarts, int[] historicalTimes,
+      float[] historicalXs, float[] historicalYs) {
+    this.target = target;
+    this.originX = originX;
+    this.originY = originY;
+    this.eventCount = eventCount;
+    this.actions = actions;
+    this.eventTimes = eventTimes;
+    this.rawXs = rawXs;
+    this.rawYs = rawYs;
+    this.historyStarts = historyStarts;
+    this.historicalTimes = historicalTimes;
+    this.historicalXs = historicalXs;
+    this.historicalYs = historicalYs;
+  }
+
+  /**
+   * @return {@link #TARGET_CARD} or {@link #TARGET_OUTSIDE}
+   */
+  public int getTarget() {
+    return target;
+  }
+
+  public int getEventCount() {
+    return eventCount;
+  }
+
+  /**
+   * @return count of historical samples of all events
+   */
+  public int getHistoricalSampleCount() {
+    return historyStarts[eventCount];
+  }
+
+  /**
+   * @return time from touch down to the last event in milliseconds
+   */
+  public int getDurationMillis() {
+    return eventCount == 0 ? 0 : eventTimes[eventCount - 1];
+  }
+
+  public void writeTo(@NonNull OutputStream outputStream) throws IOException {
+
+    final DataOutputStream out = new DataOutputStream(outputStream);
+
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    out.writeByte(target);
+    out.writeFloat(originX);
+    out.writeFloat(originY);
+    out.writeInt(eventCount);
+
+    for (int i = 0; i < eventCount; i++) {
+      out.writeByte(actions[i]);
+      out.writeInt(eventTimes[i]);
+      out.writeFloat(rawXs[i]);
+      out.writeFloat(rawYs[i]);
+      out.writeShort(historyStarts[i + 1] - historyStarts[i]);
+      for (int h = historyStarts[i]; h < historyStarts[i + 1]; h++) {
+        out.writeInt(historicalTimes[h]);
+        out.writeFloat(historicalXs[h]);
+        out.writeFloat(historicalYs[h]);
+      }
+    }
+    out.flush();
+  }
+
+  public byte[] toByteArray() {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      writeTo(out);
+    } catch (IOException e) {
+      // never thrown by ByteArrayOutputStream
+      throw new IllegalStateException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * @throws IOException when the stream is not a trace of this version
+   */
+  public static FlickGestureTrace readFrom(@NonNull InputStream inputStream) throws IOException {
+
+    final DataInputStream in = new DataInputStream(inputStream);
+
+    if (in.readInt() != MAGIC) throw new IOException("not a gesture trace");
+    final int version = in.readUnsignedByte();
+    if (version != VERSION) throw new IOException("unsupported trace version " + version);
+
+    final int target = in.readUnsignedByte();
+    final float originX = in.readFloat();
+    final float originY = in.readFloat();
+    final int eventCount = in.readInt();
+    if (eventCount < 0) throw new IOException("broken event count " + eventCount);
+
+    final FlickGestureRecorder recorder = new FlickGestureRecorder();
+    recorder.begin(target, originX, originY);
+    for (int i = 0; i < eventCount; i++) {
+      final byte action = in.readByte();
+      final int eventTime = in.readInt();
+      final float rawX = in.readFloat();
+      final float rawY = in.readFloat();
+      final int historySize = in.readUnsignedShort();
+      for (int h = 0; h < historySize; h++) {
+        recorder.addHistoricalSample(in.readInt(), in.readFloat(), in.readFloat());
+      }
+      recorder.addEvent(action, eventTime, rawX, rawY);
+    }
+    return recorder.build();
+  }
+
+  public static FlickGestureTrace fromByteArray(@NonNull byte[] bytes) throws IOException {
+    return readFrom(new ByteArrayInputStream(bytes));
+  }
+
+  @Override public String toString() {
+    return "FlickGestureTrace{target=" + target
+        + ", events=" + eventCount
+        + ", historicalSamples=" + getHistoricalSampleCount()
+        + ", durationMillis=" + getDurationMillis() + '}';
+  }
+}
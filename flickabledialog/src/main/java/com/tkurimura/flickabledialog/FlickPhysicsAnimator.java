@@ -0,0 +1,273 @@
+package com.tkurimura.flickabledialog;
+
+/**
+ * Small physics engine animating card translation and rotation from release velocity.
+ * Origin back is a critically damped spring and throwing is a friction fling, so duration
+ * follows the gesture instead of being fixed.
+ * Frames are driven by a {@link FrameClock}, which makes it testable without a device.
+ */
+class FlickPhysicsAnimator {
+
+  interface FrameClock {
+    void postFrameCallback(FrameCallback callback);
+
+    void removeFrameCallback(FrameCallback callback);
+  }
+
+  interface FrameCallback {
+    void doFrame(long frameTimeNanos);
+  }
+
+  interface Target {
+    void onPhysicsFrame(float translationX, float translationY, float rotation);
+  }
+
+  interface Listener {
+    /**
+     * @param canceled true when animation is canceled before settling
+     */
+    void onPhysicsEnd(boolean canceled);
+  }
+
+  // natural frequency of origin back spring (rad/s)
+  static final float SPRING_FREQUENCY = 25f;
+  // velocity decay rate of throwing fling (1/s)
+  static final float FLING_FRICTION = 4f;
+
+  // first frame is regarded as one frame after start
+  private static final long FIRST_FRAME_NANOS = 16666667L;
+
+  private static final float REST_DISTANCE = 0.5f;
+  private static final float REST_VELOCITY = 10f;
+  private static final float REST_ROTATION = 0.1f;
+
+  private static final int MODE_IDLE = 0;
+  private static final int MODE_SPRING = 1;
+  private static final int MODE_FLING = 2;
+
+  private final FrameClock frameClock;
+  private final Target target;
+
+  private Listener listener;
+  private int mode = MODE_IDLE;
+  private float speed = 1f;
+  private long startTimeNanos;
+
+  private float startX;
+  private float startY;
+  private float startRotation;
+  private float velocityX;
+  private float velocityY;
+
+  // fling heads along unit vector (directionX, directionY) until it travels flingDistance
+  private float directionX;
+  private float directionY;
+  private float flingSpeed;
+  private float flingDistance;
+  private float endRotation;
+
+  private final FrameCallback frameCallback = new FrameCallback() {
+    @Override public void doFrame(long frameTimeNanos) {
+      step(frameTimeNanos);
+    }
+  };
+
+  FlickPhysicsAnimator(FrameClock frameClock, Target target) {
+    this.frameClock = frameClock;
+    this.target = target;
+  }
+
+  /**
+   * bring card back to origin with critically damped spring
+   *
+   * @param velocityX release velocity in pixels per second
+   * @param velocityY release velocity in pixels per second
+   */
+  void springBack(float fromX, float fromY, float fromRotation, float velocityX, float velocityY,
+      Listener listener) {
+
+    cancel();
+
+    this.startX = fromX;
+    this.startY = fromY;
+    this.startRotation = fromRotation;
+    this.velocityX = velocityX;
+    this.velocityY = velocityY;
+
+    start(MODE_SPRING, listener);
+  }
+
+  /**
+   * throw card to the target with friction fling.
+   * The fling starts from release velocity along the target direction, and is sped up when it
+   * is too slow to reach the target.
+   *
+   * @param velocityX release velocity in pixels per second
+   * @param velocityY release velocity in pixels per second
+   */
+  void fling(float fromX, float fromY, float fromRotation, float toX, float toY, float toRotation,
+      float velocityX, float velocityY, Listener listener) {
+
+    cancel();
+
+    this.startX = fromX;
+    this.startY = fromY;
+    this.startRotation = fromRotation;
+    this.endRotation = toRotation;
+
+    final float distanceX = toX - fromX;
+    final float distanceY = toY - fromY;
+    flingDistance = (float) Math.sqrt(distanceX * distanceX + distanceY * distanceY);
+
+    if (flingDistance > 0f) {
+      directionX = distanceX / flingDistance;
+      directionY = distanceY / flingDistance;
+    } else {
+      directionX = 0f;
+      directionY = 0f;
+    }
+
+    // fling with twice the speed barely reaching the target arrives in ln(2) / friction
+    final float minimumSpeed = 2f * flingDistance * FLING_FRICTION;
+    flingSpeed = Math.max(velocityX * directionX + velocityY * directionY, minimumSpeed);
+
+    start(MODE_FLING, listener);
+  }
+
+  /**
+   * @param speed rate of animation time to real time, e.g. 2 settles in half the time.
+   * Set it while no animation is running.
+   */
+  void setSpeed(float speed) {
+    this.speed = speed;
+  }
+
+  /**
+   * @return duration of current fling in milliseconds
+   */
+  long getFlingDuration() {
+    if (mode != MODE_FLING || flingSpeed <= 0f) return 0;
+    return (long) (flingTimeSeconds() * 1000 / speed);
+  }
+
+  boolean isRunning() {
+    return mode != MODE_IDLE;
+  }
+
+  boolean isFlinging() {
+    return mode == MODE_FLING;
+  }
+
+  void cancel() {
+    if (mode == MODE_IDLE) return;
+
+    frameClock.removeFrameCallback(frameCallback);
+    end(true);
+  }
+
+  /**
+   * end running animation where it is as if it settled, e.g. when thrown card left the screen.
+   * Can be called from {@link Target#onPhysicsFrame(float, float, float)}.
+   */
+  void finish() {
+    if (mode == MODE_IDLE) return;
+
+    frameClock.removeFrameCallback(frameCallback);
+    end(false);
+  }
+
+  private void start(int mode, Listener listener) {
+    this.mode = mode;
+    this.listener = listener;
+    this.startTimeNanos = -1;
+    frameClock.postFrameCallback(frameCallback);
+  }
+
+  private void step(long frameTimeNanos) {
+
+    if (startTimeNanos < 0) startTimeNanos = frameTimeNanos - FIRST_FRAME_NANOS;
+
+    final float t = Math.max(0L, frameTimeNanos - startTimeNanos) / 1e9f * speed;
+
+    final boolean atRest;
+    if (mode == MODE_SPRING) {
+      atRest = stepSpring(t);
+    } else {
+      atRest = stepFling(t);
+    }
+
+    // finished or canceled by the target
+    if (mode == MODE_IDLE) return;
+
+    if (atRest) {
+      end(false);
+    } else {
+      frameClock.postFrameCallback(frameCallback);
+    }
+  }
+
+  private boolean stepSpring(float t) {
+
+    final float decay = (float) Math.exp(-SPRING_FREQUENCY * t);
+
+    final float x = springPosition(startX, velocityX, t, decay);
+    final float y = springPosition(startY, velocityY, t, decay);
+    final float rotation = springPosition(startRotation, 0f, t, decay);
+
+    final float currentVelocityX = springVelocity(startX, velocityX, t, decay);
+    final float currentVelocityY = springVelocity(startY, velocityY, t, decay);
+
+    if (Math.abs(x) < REST_DISTANCE && Math.abs(y) < REST_DISTANCE
+        && Math.abs(rotation) < REST_ROTATION
+        && Math.abs(currentVelocityX) < REST_VELOCITY
+        && Math.abs(currentVelocityY) < REST_VELOCITY) {
+      target.onPhysicsFrame(0f, 0f, 0f);
+      return true;
+    }
+
+    target.onPhysicsFrame(x, y, rotation);
+    return false;
+  }
+
+  private boolean stepFling(float t) {
+
+    if (flingSpeed <= 0f || t >= flingTimeSeconds()) {
+      target.onPhysicsFrame(startX + directionX * flingDistance,
+          startY + directionY * flingDistance, endRotation);
+      return true;
+    }
+
+    final float travelled =
+        flingSpeed / FLING_FRICTION * (1f - (float) Math.exp(-FLING_FRICTION * t));
+    final float progress = travelled / flingDistance;
+
+    target.onPhysicsFrame(startX + directionX * travelled, startY + directionY * travelled,
+        startRotation + (endRotation - startRotation) * progress);
+    return false;
+  }
+
+  /**
+   * @return time for the fling to travel to the target
+   */
+  private float flingTimeSeconds() {
+    return (float) (-Math.log(1.0 - flingDistance * FLING_FRICTION / flingSpeed) / FLING_FRICTION);
+  }
+
+  private void end(boolean canceled) {
+    mode = MODE_IDLE;
+
+    final Listener listener = this.listener;
+    this.listener = null;
+    if (listener != null) listener.onPhysicsEnd(canceled);
+  }
+
+  // x(t) = (x0 + (v0 + w * x0) * t) * e^(-w * t)
+  private static float springPosition(float x0, float v0, float t, float decay) {
+    return (x0 + (v0 + SPRING_FREQUENCY * x0) * t) * decay;
+  }
+
+  // v(t) = (v0 - w * (v0 + w * x0) * t) * e^(-w * t)
+  private static float springVelocity(float x0, float v0, float t, float decay) {
+    return (v0 - SPRING_FREQUENCY * (v0 + SPRING_FREQUENCY * x0) * t) * decay;
+  }
+}
@@ -0,0 +1,110 @@
+package com.tkurimura.flickabledialog;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.Nullable;
+
+/**
+ * Process wide quality level of FlickableDialog animations.
+ * While adaptive, frame times of every gesture are measured and the level steps down by one
+ * after a gesture which drops too many frames. The level does not come back up until
+ * {@link #reset()}, so later dialogs in the process start smooth.
+ *
+ * <pre>{@code
+ * FlickQualityGovernor.setAdaptive(true);
+ * // or decide by device class
+ * FlickQualityGovernor.setPolicy(new FlickQualityGovernor.Policy() {
+ *   public int selectLevel(int adaptiveLevel) {
+ *     return isLowRamDevice ? FlickQualityGovernor.LEVEL_NO_ROTATION : adaptiveLevel;
+ *   }
+ * });
+ * }</pre>
+ *
+ * @version 0.10.0
+ */
+@MainThread
+public final class FlickQualityGovernor {
+
+  public interface Policy {
+    /**
+     * @param adaptiveLevel level measured so far, {@link #LEVEL_FULL} unless adaptive
+     * @return level to be used from the next gesture
+     */
+    int selectLevel(int adaptiveLevel);
+  }
+
+  /**
+   * every animation
+   */
+  public static final int LEVEL_FULL = 0;
+  /**
+   * card content and dim are not faded, the dialog shows and goes at once
+   */
+  public static final int LEVEL_NO_FADE = 1;
+  /**
+   * in addition, the card is not rotated while dragged and thrown
+   */
+  public static final int LEVEL_NO_ROTATION = 2;
+  /**
+   * in addition, throwing and coming back take half the time
+   */
+  public static final int LEVEL_SHORT_DURATION = 3;
+
+  // a gesture dropping more frames than this ratio of drawn frames steps the level down
+  static final float DROPPED_FRAME_RATIO = 0.25f;
+  // too short gestures tell nothing
+  static final int MINIMUM_FRAMES = 8;
+
+  private static boolean adaptive;
+  private static int adaptiveLevel = LEVEL_FULL;
+  @Nullable private static Policy policy;
+
+  private FlickQualityGovernor() {}
+
+  /**
+   * measure frame times of gestures and step down on dropped frames (default : false)
+   */
+  public static void setAdaptive(boolean adaptive) {
+    FlickQualityGovernor.adaptive = adaptive;
+  }
+
+  public static boolean isAdaptive() {
+    return adaptive;
+  }
+
+  /**
+   * @param policy null to use the adaptive level as it is
+   */
+  public static void setPolicy(@Nullable Policy policy) {
+    FlickQualityGovernor.policy = policy;
+  }
+
+  /**
+   * @return level used by dialogs, from {@link #LEVEL_FULL} to {@link #LEVEL_SHORT_DURATION}
+   */
+  public static int getLevel() {
+    final int level = policy != null ? policy.selectLevel(adaptiveLevel) : adaptiveLevel;
+    return Math.max(LEVEL_FULL, Math.min(LEVEL_SHORT_DURATION, level));
+  }
+
+  /**
+   * forget the measured level
+   */
+  public static void reset() {
+    adaptiveLevel = LEVEL_FULL;
+  }
+
+  /**
+   * judge frame times of a finished gesture
+   */
+  static void onGesture(FrameTimeHistogram histogram) {
+    if (!adaptive) return;
+
+    final int frameCount = histogram.getFrameCount();
+    if (frameCount < MINIMUM_FRAMES) return;
+
+    if (histogram.getDroppedFrameCount() > frameCount * DROPPED_FRAME_RATIO
+        && adaptiveLevel < LEVEL_SHORT_DURATION) {
+      adaptiveLevel++;
+    }
+  }
+}
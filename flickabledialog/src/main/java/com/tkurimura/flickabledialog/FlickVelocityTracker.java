@@ -0,0 +1,110 @@
+package com.tkurimura.flickabledialog;
+
+/**
+ * Estimates finger velocity from recent touch samples kept in a fixed-size ring buffer.
+ * The velocity is the least squares slope of the samples within {@link #HORIZON_MILLIS}
+ * of the newest one.
+ */
+class FlickVelocityTracker {
+
+  static final int CAPACITY = 32;
+  static final long HORIZON_MILLIS = 100;
+  // finger regarded as stopped when it rests longer than this before release
+  static final long ASSUME_STOPPED_MILLIS = 40;
+
+  private final long[] times = new long[CAPACITY];
+  private final float[] xs = new float[CAPACITY];
+  private final float[] ys = new float[CAPACITY];
+  private int head = -1;
+  private int count;
+
+  private float velocityX;
+  private float velocityY;
+
+  void clear() {
+    head = -1;
+    count = 0;
+    velocityX = 0f;
+    velocityY = 0f;
+  }
+
+  /**
+   * @param eventTime event time in milliseconds
+   * @param x raw x
+   * @param y raw y
+   */
+  void addSample(long eventTime, float x, float y) {
+    head = (head + 1) % CAPACITY;
+    times[head] = eventTime;
+    xs[head] = x;
+    ys[head] = y;
+    if (count < CAPACITY) count++;
+  }
+
+  /**
+   * compute velocity at release time, read it with {@link #getVelocityX()} and
+   * {@link #getVelocityY()}
+   *
+   * @param releaseTime event time of ACTION_UP in milliseconds
+   */
+  void computeVelocity(long releaseTime) {
+
+    velocityX = 0f;
+    velocityY = 0f;
+
+    if (count < 2) return;
+
+    final long newestTime = times[head];
+    if (releaseTime - newestTime > ASSUME_STOPPED_MILLIS) return;
+
+    // means of samples within horizon
+    int samples = 0;
+    double sumT = 0;
+    double sumX = 0;
+    double sumY = 0;
+    for (int i = 0, index = head; i < count; i++, index = (index - 1 + CAPACITY) % CAPACITY) {
+      final long age = newestTime - times[index];
+      if (age > HORIZON_MILLIS) break;
+      samples++;
+      sumT += -age;
+      sumX += xs[index];
+      sumY += ys[index];
+    }
+
+    if (samples < 2) return;
+
+    final double meanT = sumT / samples;
+    final double meanX = sumX / samples;
+    final double meanY = sumY / samples;
+
+    double varianceT = 0;
+    double covarianceX = 0;
+    double covarianceY = 0;
+    for (int i = 0, index = head; i < samples; i++, index = (index - 1 + CAPACITY) % CAPACITY) {
+      final double t = -(newestTime - times[index]) - meanT;
+      varianceT += t * t;
+      covarianceX += t * (xs[index] - meanX);
+      covarianceY += t * (ys[index] - meanY);
+    }
+
+    if (varianceT == 0) return;
+
+    // pixels per millisecond to pixels per second
+    velocityX = (float) (covarianceX / varianceT * 1000);
+    velocityY = (float) (covarianceY / varianceT * 1000);
+  }
+
+  /**
+   * @return horizontal velocity in pixels per second
+   */
+  float getVelocityX() {
+    return velocityX;
+  }
+
+  /**
+   * @return vertical velocity in pixels per second
+   */
+  float getVelocityY() {
+    return velocityY;
+  }
+}
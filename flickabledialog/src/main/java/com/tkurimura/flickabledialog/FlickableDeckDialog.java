@@ -0,0 +1,208 @@
+package com.tkurimura.flickabledialog;
+
+import android.os.Bundle;
+import android.support.annotation.ColorRes;
+import android.support.annotation.Nullable;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flickable dialog showing a stack of cards fed by an {@link Adapter}.
+ * Flicking the top card reveals the next one, and the dialog is dismissed after the last card.
+ * At most {@link #STACK_SIZE} card views are inflated. A thrown card view is bound to the card
+ * coming into the stack and put at the bottom, like RecyclerView recycles item views.
+ *
+ * @version 0.10.0
+ */
+public class FlickableDeckDialog extends FlickableDialog {
+
+  public static final int STACK_SIZE = 3;
+
+  private static final String TOP_POSITION_KEY = "top_position_key";
+  // cards beneath are scaled down and peek out under the top card
+  private static final float DEPTH_SCALE = 0.05f;
+  private static final float DEPTH_OFFSET_DP = 8f;
+  private static final long DEPTH_ANIMATION_DURATION = 150;
+
+  public abstract static class Adapter {
+
+    public abstract int getCount();
+
+    /**
+     * @param parent parent to generate layout params, do not attach the card to it
+     */
+    public abstract View onCreateCardView(LayoutInflater inflater, ViewGroup parent);
+
+    public abstract void onBindCardView(View cardView, int position);
+  }
+
+  @Nullable private Adapter adapter;
+  @Nullable private FlickableDialogListener.OnDeckCardFlicked onDeckCardFlickedListener;
+  private int topPosition;
+  // card views from the top
+  private final List<View> stack = new ArrayList<>(STACK_SIZE);
+
+  public static FlickableDeckDialog newInstance() {
+    return newInstance(0);
+  }
+
+  public static FlickableDeckDialog newInstance(@ColorRes int backgroundColor) {
+
+    Bundle bundle = new Bundle();
+
+    if (backgroundColor != 0) {
+      bundle.putInt(BACKGROUND_COLOR_RESOURCE_KEY, backgroundColor);
+    }
+
+    FlickableDeckDialog flickableDeckDialog = new FlickableDeckDialog();
+    flickableDeckDialog.setArguments(bundle);
+
+    return flickableDeckDialog;
+  }
+
+  /**
+   * Adapter is not kept over configuration change, set it again to recreated dialog.
+   */
+  public void setAdapter(Adapter adapter) {
+    this.adapter = adapter;
+  }
+
+  public void setOnDeckCardFlicked(
+      FlickableDialogListener.OnDeckCardFlicked onDeckCardFlickedListener) {
+    this.onDeckCardFlickedListener = onDeckCardFlickedListener;
+  }
+
+  /**
+   * @return position of the top card in the adapter
+   */
+  public int getTopPosition() {
+    return topPosition;
+  }
+
+  @Override public void onCreate(Bundle savedInstanceState) {
+    super.onCreate(savedInstanceState);
+
+    if (savedInstanceState != null) {
+      topPosition = savedInstanceState.getInt(TOP_POSITION_KEY);
+    }
+  }
+
+  @Override public void onSaveInstanceState(Bundle outState) {
+    super.onSaveInstanceState(outState);
+
+    outState.putInt(TOP_POSITION_KEY, topPosition);
+  }
+
+  @Override
+  View createCardView(FrameLayout frameLayout, @Nullable FlickableDialogPool.Entry pooled) {
+
+    if (adapter == null || topPosition >= adapter.getCount()) {
+      throw new IllegalStateException("set adapter which has a card to be shown");
+    }
+
+    stack.clear();
+
+    final LayoutInflater inflater = LayoutInflater.from(getActivity());
+    final int size = Math.min(STACK_SIZE, adapter.getCount() - topPosition);
+    for (int i = 0; i < size; i++) {
+      final View cardView = adapter.onCreateCardView(inflater, frameLayout);
+      // touches on cards beneath do not cancel the dialog
+      cardView.setClickable(true);
+      adapter.onBindCardView(cardView, topPosition + i);
+      stack.add(cardView);
+    }
+    // the top card is drawn last
+    for (int i = size - 1; i >= 0; i--) {
+      frameLayout.addView(stack.get(i));
+    }
+
+    layoutDepth(false);
+
+    return stack.get(0);
+  }
+
+  @Override boolean isLastCard() {
+    return stack.size() <= 1;
+  }
+
+  @Override void onCardThrown(int xDirection) {
+
+    notifyFlicked(xDirection);
+    if (onDeckCardFlickedListener != null) {
+      onDeckCardFlickedListener.onDeckCardFlicked(xDirection, topPosition);
+    }
+
+    final View thrown = stack.remove(0);
+    final int comingPosition = topPosition + STACK_SIZE;
+    topPosition++;
+
+    if (stack.isEmpty()) {
+      dismissIfAdded();
+      return;
+    }
+
+    final ViewGroup parent = (ViewGroup) thrown.getParent();
+    parent.removeView(thrown);
+    final int bottomIndex = parent.indexOfChild(stack.get(stack.size() - 1));
+
+    // recycle the thrown card for the card coming into the stack
+    if (adapter != null && comingPosition < adapter.getCount()) {
+      thrown.setTranslationX(0f);
+      thrown.setTranslationY(0f);
+      thrown.setRotation(0f);
+      adapter.onBindCardView(thrown, comingPosition);
+      parent.addView(thrown, bottomIndex);
+      stack.add(thrown);
+    }
+
+    layoutDepth(true);
+  }
+
+  @Override public void onDetach() {
+    onDeckCardFlickedListener = null;
+    super.onDetach();
+  }
+
+  /**
+   * scale and offset cards as their depth in the stack, the top card becomes flickable
+   * when it comes up
+   */
+  private void layoutDepth(boolean animate) {
+
+    final float offset = DEPTH_OFFSET_DP * getResources().getDisplayMetrics().density;
+
+    for (int i = 0; i < stack.size(); i++) {
+      final View cardView = stack.get(i);
+      final float scale = 1f - DEPTH_SCALE * i;
+
+      if (animate) {
+        cardView.animate()
+            .scaleX(scale)
+            .scaleY(scale)
+            .translationY(offset * i)
+            .setDuration(DEPTH_ANIMATION_DURATION)
+            .withLayer();
+      } else {
+        cardView.setScaleX(scale);
+        cardView.setScaleY(scale);
+        cardView.setTranslationY(offset * i);
+      }
+    }
+
+    final View top = stack.get(0);
+    if (animate) {
+      top.animate().withEndAction(new Runnable() {
+        @Override public void run() {
+          setTopCard(top);
+        }
+      });
+    } else {
+      setTopCard(top);
+    }
+  }
+}
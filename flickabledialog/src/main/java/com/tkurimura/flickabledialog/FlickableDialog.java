@@ -1,41 +1,34 @@
 package com.tkurimura.flickabledialog;
 
-import android.animation.ObjectAnimator;
-import android.animation.PropertyValuesHolder;
+import android.app.Activity;
 import android.app.Dialog;
 import android.content.DialogInterface;
+import android.graphics.Bitmap;
 import android.graphics.Color;
+import android.graphics.drawable.BitmapDrawable;
 import android.os.Bundle;
 import android.support.annotation.ColorRes;
 import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.DialogFragment;
 import android.support.v4.content.ContextCompat;
-import android.util.Pair;
+import android.support.v4.view.AsyncLayoutInflater;
+import android.view.Choreographer;
+import android.view.KeyEvent;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.view.ViewGroup;
-import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.ViewTreeObserver;
 import android.widget.FrameLayout;
+import android.widget.ImageView;
 
 import com.flickabledialog.R;
 
-import java.util.concurrent.TimeUnit;
-
-import io.reactivex.Observable;
-import io.reactivex.ObservableEmitter;
-import io.reactivex.ObservableOnSubscribe;
-import io.reactivex.disposables.CompositeDisposable;
-import io.reactivex.disposables.Disposable;
-import io.reactivex.functions.BiFunction;
-import io.reactivex.functions.Consumer;
-import io.reactivex.functions.Function;
-import io.reactivex.functions.Function3;
-import io.reactivex.functions.Predicate;
-
-import static io.reactivex.android.schedulers.AndroidSchedulers.mainThread;
+import java.util.ArrayList;
 
 public class FlickableDialog extends DialogFragment {
 
@@ -43,17 +36,174 @@ public class FlickableDialog extends DialogFragment {
   protected static final String ROTATE_ANIMATION_KEY = "rotate_animation_key";
   protected static final String DISMISS_THRESHOLD_KEY = "layout_resource_bundle_key";
   protected static final String BACKGROUND_COLOR_RESOURCE_KEY = "color_resource_bundle_key";
-  private boolean touchedTopArea;
+  protected static final String OVERLAY_KEY = "overlay_bundle_key";
 
   private float DISMISS_THRESHOLD = 700f;
   private float ROTATE_ANIMATION_EXPONENT = 30f;
-  private CompositeDisposable compositeSubscription = new CompositeDisposable();
-  private int previousX;
-  private int previousY;
-  private Integer defaultLeft;
-  private Integer defaultTop;
+  private static final float FLING_VELOCITY_THRESHOLD_DP = 1500f;
+  private static final long THROW_ANIMATION_DURATION = 400;
+  private float flingVelocityThreshold;
+  private final FlickGestureEngine gestureEngine = new FlickGestureEngine();
+  @LayoutRes private int layoutResource;
+  private FrameLayout frameLayout;
+  private View cardView;
+  private DimView dimView;
+  private boolean dimFollowsDrag;
+  private boolean blurBackdrop;
+  @Nullable private BackdropBlur backdropBlur;
+  @Nullable private ImageView backdropView;
+  private boolean coalesceTouchEvents;
+  private boolean movePosted;
+  private final Choreographer.FrameCallback applyMoveCallback = new Choreographer.FrameCallback() {
+    @Override public void doFrame(long frameTimeNanos) {
+      movePosted = false;
+      applyMove(cardView);
+    }
+  };
+  private boolean coalesceOnFlicking;
+  private float onFlickingThreshold;
+  private float deliveredVerticalPercentage;
+  private float deliveredHorizontalPercentage;
+  private boolean flickingPosted;
+  private final ArrayList<FlickEffect> flickEffects = new ArrayList<>();
+  private float effectTranslationX;
+  private float effectTranslationY;
+  private boolean effectsPosted;
+  private final Choreographer.FrameCallback effectsCallback = new Choreographer.FrameCallback() {
+    @Override public void doFrame(long frameTimeNanos) {
+      effectsPosted = false;
+      applyFlickEffects();
+    }
+  };
+  private final Choreographer.FrameCallback flickingCallback = new Choreographer.FrameCallback() {
+    @Override public void doFrame(long frameTimeNanos) {
+      flickingPosted = false;
+      deliverFlicking(false);
+    }
+  };
+  // touch event listener moving the card
+  private final View.OnTouchListener cardTouchListener = new View.OnTouchListener() {
+    @Override public boolean onTouch(View rootView, MotionEvent event) {
+
+      if (gestureListener != null) recordGesture(FlickGestureTrace.TARGET_CARD, rootView, event);
+
+      // thrown card is not touchable any more
+      if (physicsAnimator.isFlinging()) return true;
+
+      switch (event.getAction()) {
+        case MotionEvent.ACTION_DOWN:
+          if (metrics != null) metrics.onDown(System.nanoTime());
+          startFrameRecording();
+          // continue from where origin back animation is
+          physicsAnimator.cancel();
+          applyQualityLevel();
+          // keep card on a hardware layer while dragging and animating
+          rootView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+          gestureEngine.setOffset(Math.round(rootView.getTranslationX()),
+              Math.round(rootView.getTranslationY()));
+          gestureEngine.down(event.getRawX(), event.getRawY(), rootView.getY(),
+              rootView.getHeight());
+          addVelocitySamples(rootView, event);
+          break;
+        case MotionEvent.ACTION_MOVE:
+          // intermediate samples feed velocity even when moves are coalesced
+          addVelocitySamples(rootView, event);
+
+          gestureEngine.move(event.getRawX(), event.getRawY());
+
+          if (coalesceTouchEvents) {
+            // apply once in this frame's animation callback, which runs after input
+            if (!movePosted) {
+              Choreographer.getInstance().postFrameCallback(applyMoveCallback);
+              movePosted = true;
+            }
+          } else {
+            applyMove(rootView);
+          }
+          return true;
+        default:
+          flushMove();
+          addVelocitySamples(rootView, event);
+          gestureEngine.track(event.getRawX(), event.getRawY());
+          break;
+      }
+
+      // touch down and release are always called back right now
+      dispatchFlicking(true);
+
+      if (event.getAction() == MotionEvent.ACTION_UP) {
+        if (gestureEngine.release(event.getEventTime())) {
+          // flicking amount or velocity is over threshold
+          throwAway(rootView);
+        } else {
+          backToOrigin(rootView);
+        }
+      } else if (event.getAction() == MotionEvent.ACTION_CANCEL) {
+        // gesture taken away, e.g. by the system, is not a flick
+        backToOrigin(rootView);
+      }
+      return true;
+    }
+  };
+  // records touches outside of the card, which the card does not receive
+  private final View.OnTouchListener outsideTouchListener = new View.OnTouchListener() {
+    @Override public boolean onTouch(View frameLayout, MotionEvent event) {
+      if (gestureListener != null) {
+        recordGesture(FlickGestureTrace.TARGET_OUTSIDE, cardView, event);
+      }
+      // go on to click
+      return false;
+    }
+  };
+  @Nullable private FlickGestureTrace.Listener gestureListener;
+  @Nullable private FlickGestureRecorder gestureRecorder;
+
+  // FlickQualityGovernor level read at show and every touch down
+  private int qualityLevel = FlickQualityGovernor.LEVEL_FULL;
+  private final FlickPhysicsAnimator physicsAnimator =
+      new FlickPhysicsAnimator(new ChoreographerFrameClock(), new FlickPhysicsAnimator.Target() {
+        @Override
+        public void onPhysicsFrame(float translationX, float translationY, float rotation) {
+          cardView.setTranslationX(translationX);
+          cardView.setTranslationY(translationY);
+          cardView.setRotation(rotation);
+          if (physicsAnimator.isFlinging()) {
+            // thrown card is done as soon as nothing of it is on the screen
+            if (isCardOutside()) physicsAnimator.finish();
+          } else {
+            followDrag(translationX, translationY, true);
+          }
+        }
+      });
   private boolean cancelAndDismissTaken = true;
-  private boolean cancelable = false;
+
+  @Nullable private FrameTimeHistogram.Listener frameTimeListener;
+  @Nullable private FrameTimeHistogram frameTimeHistogram;
+  private boolean recordingFrames;
+  private final Choreographer.FrameCallback frameTimeCallback = new Choreographer.FrameCallback() {
+    @Override public void doFrame(long frameTimeNanos) {
+      if (!recordingFrames) return;
+      frameTimeHistogram.onFrame(frameTimeNanos);
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+  };
+
+  // notified once when dismissed, e.g. by FlickableDialogQueue
+  @Nullable private Runnable onDismissedHook;
+
+  @Nullable private static FlickableDialogMetrics.Listener metricsListener;
+  // recorded only while a metrics listener is installed
+  @Nullable private FlickableDialogMetrics metrics;
+  @Nullable private ViewTreeObserver drawObserver;
+  private final ViewTreeObserver.OnDrawListener metricsDrawListener =
+      new ViewTreeObserver.OnDrawListener() {
+        @Override public void onDraw() {
+          if (metrics == null) return;
+          // memorize observer of the window to remove this listener outside of drawing
+          drawObserver = frameLayout.getViewTreeObserver();
+          metrics.onDraw(System.nanoTime());
+        }
+      };
 
   public static FlickableDialog newInstance(@LayoutRes int layoutResources) {
 
@@ -93,6 +243,34 @@ public class FlickableDialog extends DialogFragment {
     return flickableDialog;
   }
 
+  /**
+   * inflate the card layout on a background thread and keep it in {@link FlickableDialogPool},
+   * so that showing the dialog later costs only attaching the window.
+   * Pool size is raised to 1 when the pool is disabled.
+   *
+   * @param activity activity which shows the dialog
+   * @param layoutResource card layout, nothing is done for 0 e.g. of a deck dialog
+   * @version 0.10.0
+   */
+  @MainThread
+  public static void prewarm(final Activity activity, @LayoutRes final int layoutResource) {
+
+    // AsyncLayoutInflater falls back to the main thread and throws there
+    if (layoutResource == 0) return;
+
+    final FlickableDialogPool pool = FlickableDialogPool.getInstance();
+    if (pool.getMaxSize() == 0) pool.setMaxSize(1);
+    if (pool.contains(activity, layoutResource)) return;
+
+    // parent generates layout params of the card, it is not attached
+    new AsyncLayoutInflater(activity).inflate(layoutResource, new FrameLayout(activity),
+        new AsyncLayoutInflater.OnInflateFinishedListener() {
+          @Override public void onInflateFinished(View view, int resid, ViewGroup parent) {
+            if (!activity.isFinishing()) pool.put(activity, layoutResource, view);
+          }
+        });
+  }
+
   /**
    * callback flicking amount from original position to dismiss threshold.
    * This method is aimed to be overridden
@@ -124,488 +302,916 @@ public class FlickableDialog extends DialogFragment {
   @NonNull @Override public Dialog onCreateDialog(Bundle savedInstanceState) {
     super.onCreateDialog(savedInstanceState);
 
+    beginMetrics(false);
+
+    // re-show skips inflation when the hierarchy is pooled
+    final FlickableDialogPool.Entry pooled = readArgumentsAndAcquire();
+
+    final Dialog dialog;
+    if (pooled != null && pooled.dialog != null) {
+      dialog = pooled.dialog;
+      frameLayout = pooled.frameLayout;
+    } else {
+      dialog = new Dialog(getActivity(), android.R.style.Theme_Translucent_NoTitleBar_Fullscreen);
+      frameLayout = new FrameLayout(getContext());
+      dialog.setContentView(frameLayout);
+    }
+
+    setUpContentView(pooled);
+
+    dialog.setCancelable(isCancelable());
+
+    return dialog;
+  }
+
+  @Override public void onCreate(Bundle savedInstanceState) {
+    super.onCreate(savedInstanceState);
+
+    // DialogFragment decides showing dialog in onCreate
+    if (getArguments() != null && getArguments().getBoolean(OVERLAY_KEY)) setShowsDialog(false);
+  }
+
+  @Override public void onActivityCreated(Bundle savedInstanceState) {
+    super.onActivityCreated(savedInstanceState);
+
+    if (getShowsDialog()) return;
+
+    beginMetrics(true);
+
+    final FlickableDialogPool.Entry pooled = readArgumentsAndAcquire();
+    frameLayout = new FrameLayout(getContext());
+    setUpContentView(pooled);
+
+    // back key is taken by the focused dim background instead of the dialog window
+    frameLayout.setFocusableInTouchMode(true);
+    frameLayout.setOnKeyListener(new View.OnKeyListener() {
+      @Override public boolean onKey(View v, int keyCode, KeyEvent event) {
+        if (keyCode != KeyEvent.KEYCODE_BACK || !isCancelable()) return false;
+
+        if (event.getAction() == KeyEvent.ACTION_UP && !event.isCanceled()) {
+          notifyCanceled();
+          dismissIfAdded();
+        }
+        return true;
+      }
+    });
+
+    ((ViewGroup) getActivity().getWindow().getDecorView()).addView(frameLayout,
+        new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+            ViewGroup.LayoutParams.MATCH_PARENT));
+    frameLayout.requestFocus();
+  }
+
+  /**
+   * @return pooled hierarchy of the layout resource, or null
+   */
+  @Nullable private FlickableDialogPool.Entry readArgumentsAndAcquire() {
     Bundle bundle = getArguments();
 
-    @LayoutRes final int layoutResource = bundle.getInt(LAYOUT_RESOURCE_KEY);
+    layoutResource = bundle.getInt(LAYOUT_RESOURCE_KEY);
 
     DISMISS_THRESHOLD = bundle.getFloat(DISMISS_THRESHOLD_KEY, DISMISS_THRESHOLD);
     ROTATE_ANIMATION_EXPONENT = bundle.getFloat(DISMISS_THRESHOLD_KEY, ROTATE_ANIMATION_EXPONENT);
-    int backgroundColorResource = bundle.getInt(BACKGROUND_COLOR_RESOURCE_KEY, 0);
 
-    final FrameLayout frameLayout = new FrameLayout(getContext());
+    return FlickableDialogPool.getInstance().acquire(getActivity(), layoutResource);
+  }
 
+  // touched outside of the card
+  private final View.OnClickListener outsideClickListener = new View.OnClickListener() {
+    @Override public void onClick(View v) {
+
+      if (!cancelAndDismissTaken) return;
+
+      if (metrics != null) metrics.onOutsideTap(System.nanoTime());
+
+      if (qualityLevel >= FlickQualityGovernor.LEVEL_NO_FADE) {
+        notifyCanceled();
+        dismissIfAdded();
+        return;
+      }
+
+      // only cards are composed offscreen, dim fades by itself
+      for (int i = 0; i < frameLayout.getChildCount(); i++) {
+        final View child = frameLayout.getChildAt(i);
+        if (child != dimView) child.animate().alpha(0f).setDuration(300).withLayer();
+      }
+      dimView.animate().alpha(0f).setDuration(300).withEndAction(new Runnable() {
+        @Override public void run() {
+
+          notifyCanceled();
+          dismissIfAdded();
+        }
+      });
+    }
+  };
+
+  /**
+   * set up dim background and card in {@link #frameLayout}
+   */
+  private void setUpContentView(@Nullable FlickableDialogPool.Entry pooled) {
+
+    final FrameLayout frameLayout = this.frameLayout;
+
+    frameLayout.setOnClickListener(outsideClickListener);
+    frameLayout.setOnTouchListener(outsideTouchListener);
+
+    cardView = createCardView(frameLayout, pooled);
+
+    // dim is drawn in the frame layout under the cards instead of its background
+    int backgroundColorResource = getArguments().getInt(BACKGROUND_COLOR_RESOURCE_KEY, 0);
+
+    if (frameLayout.getChildAt(0) instanceof DimView) {
+      dimView = (DimView) frameLayout.getChildAt(0);
+    } else {
+      dimView = new DimView(getContext());
+      frameLayout.addView(dimView, 0);
+    }
     if (backgroundColorResource != 0) {
-      frameLayout.setBackgroundColor(ContextCompat.getColor(getContext(), backgroundColorResource));
+      dimView.setColor(ContextCompat.getColor(getContext(), backgroundColorResource));
     } else {
-      frameLayout.setBackgroundColor(Color.argb(100, 0, 0, 0));
+      dimView.setColor(Color.argb(100, 0, 0, 0));
     }
 
-    compositeSubscription.add(Observable.create(new ObservableOnSubscribe<View>() {
-      @Override public void subscribe(final ObservableEmitter<View> subscriber) {
-        frameLayout.setOnClickListener(new View.OnClickListener() {
-          @Override public void onClick(View v) {
-            subscriber.onNext(v);
-          }
-        });
-      }
-    }).filter(new Predicate<View>() {
-      @Override public boolean test(View view) {
-        return cancelAndDismissTaken;
+    if (metrics != null) {
+      metrics.onInflated(System.nanoTime(), pooled != null);
+      frameLayout.getViewTreeObserver().addOnDrawListener(metricsDrawListener);
+    }
+
+    gestureEngine.setDismissThreshold(DISMISS_THRESHOLD);
+    gestureEngine.setRotateAnimationExponent(ROTATE_ANIMATION_EXPONENT);
+
+    final float density = getResources().getDisplayMetrics().density;
+    gestureEngine.setFlingThreshold(
+        flingVelocityThreshold != 0 ? flingVelocityThreshold : FLING_VELOCITY_THRESHOLD_DP * density,
+        ViewConfiguration.get(getContext()).getScaledTouchSlop());
+
+    setTopCard(cardView);
+
+    if (onCreateView != null) onCreateView.onCreateView(frameLayout);
+
+    // runs after the first frame, which is drawn without waiting for the backdrop
+    if (blurBackdrop) frameLayout.post(startBackdropBlur);
+
+    applyQualityLevel();
+    // pooled views may have been faded out
+    if (qualityLevel >= FlickQualityGovernor.LEVEL_NO_FADE) {
+      for (int i = 0; i < frameLayout.getChildCount(); i++) {
+        frameLayout.getChildAt(i).setAlpha(1f);
       }
-    }).map(new Function<View, ObjectAnimator>() {
-      @Override public ObjectAnimator apply(View view) {
-        ObjectAnimator alphaAnimation = ObjectAnimator.ofFloat(frameLayout, "alpha", 1f, 0f);
-        alphaAnimation.setDuration(300);
+      return;
+    }
 
-        return alphaAnimation;
+    for (int i = 0; i < frameLayout.getChildCount(); i++) {
+      final View child = frameLayout.getChildAt(i);
+      child.setAlpha(0f);
+      if (child == dimView) {
+        child.animate().alpha(1f).setDuration(200);
+      } else {
+        child.animate().alpha(1f).setDuration(200).withLayer();
       }
-    }).flatMap(new Function<ObjectAnimator, Observable<?>>() {
-      @Override public Observable<?> apply(ObjectAnimator objectAnimator) {
+    }
+  }
 
-        objectAnimator.start();
+  private final Runnable startBackdropBlur = new Runnable() {
+    @Override public void run() {
+      if (getActivity() == null || frameLayout.getParent() == null) return;
 
-        return Observable.just(1)
-            .delay(300, TimeUnit.MILLISECONDS)
-            .observeOn(mainThread());
+      final View content = getActivity().findViewById(android.R.id.content);
+      backdropBlur = new BackdropBlur(new BackdropBlur.Callback() {
+        @Override public void onBlurred(Bitmap bitmap) {
+          showBackdrop(content, bitmap);
+        }
+      });
+      backdropBlur.start(content);
+    }
+  };
+
+  /**
+   * put blurred activity content under the dim and fade it in
+   */
+  private void showBackdrop(View content, Bitmap bitmap) {
+
+    backdropBlur = null;
+
+    backdropView = new ImageView(getContext());
+    backdropView.setScaleType(ImageView.ScaleType.FIT_XY);
+    backdropView.setImageBitmap(bitmap);
+
+    // at the same position as the activity content
+    final int[] contentLocation = new int[2];
+    final int[] frameLocation = new int[2];
+    content.getLocationOnScreen(contentLocation);
+    frameLayout.getLocationOnScreen(frameLocation);
+    backdropView.setTranslationX(contentLocation[0] - frameLocation[0]);
+    backdropView.setTranslationY(contentLocation[1] - frameLocation[1]);
+
+    frameLayout.addView(backdropView, 0,
+        new FrameLayout.LayoutParams(content.getWidth(), content.getHeight()));
+
+    backdropView.setAlpha(0f);
+    backdropView.animate().alpha(1f).setDuration(200);
+  }
+
+  private void removeBackdrop() {
+
+    if (frameLayout != null) frameLayout.removeCallbacks(startBackdropBlur);
+
+    if (backdropBlur != null) {
+      backdropBlur.cancel();
+      backdropBlur = null;
+    }
+
+    if (backdropView != null) {
+      final Bitmap bitmap = ((BitmapDrawable) backdropView.getDrawable()).getBitmap();
+      backdropView.setImageDrawable(null);
+      if (backdropView.getParent() != null) {
+        ((ViewGroup) backdropView.getParent()).removeView(backdropView);
       }
-    }).doOnNext(new Consumer<Object>() {
-      @Override public void accept(Object o) {
+      BackdropBlur.release(bitmap);
+      backdropView = null;
+    }
+  }
 
-        if(onFlickableDialogCanceled != null){
-          onFlickableDialogCanceled.onFlickableDialogCanceled();
-        }
+  /**
+   * add the card to be flicked to the dim background
+   *
+   * @return the card
+   */
+  View createCardView(FrameLayout frameLayout, @Nullable FlickableDialogPool.Entry pooled) {
+
+    if (pooled != null) {
+      final View cardView = pooled.cardView;
+      if (cardView.getParent() != frameLayout) {
+        // pooled with a dialog which is not used in overlay mode
+        if (cardView.getParent() != null) ((ViewGroup) cardView.getParent()).removeView(cardView);
+        frameLayout.addView(cardView);
       }
-    }).subscribe(new Consumer<Object>() {
-      @Override public void accept(Object o) {
-        dismiss();
+      return cardView;
+    }
+
+    final View cardView =
+        LayoutInflater.from(getActivity()).inflate(layoutResource, frameLayout, false);
+    frameLayout.addView(cardView);
+    return cardView;
+  }
+
+  /**
+   * make the card flickable, the previous card is not touchable any more
+   */
+  void setTopCard(View cardView) {
+    if (this.cardView != null && this.cardView != cardView) this.cardView.setOnTouchListener(null);
+
+    this.cardView = cardView;
+    cardView.setOnTouchListener(cardTouchListener);
+  }
+
+  /**
+   * called back when thrown card has flown out
+   */
+  void onCardThrown(int xDirection) {
+    notifyFlicked(xDirection);
+    dismissIfAdded();
+  }
+
+  /**
+   * @return false when another card is left after the top card is thrown
+   */
+  boolean isLastCard() {
+    return true;
+  }
+
+  /**
+   * move view with finger and rotate view as touched down position
+   */
+  private void applyMove(View rootView) {
+
+    // only render properties are changed, layout bounds stay at origin
+    if (qualityLevel < FlickQualityGovernor.LEVEL_NO_ROTATION) {
+      rootView.setRotation(gestureEngine.getRotation());
+    }
+    rootView.setTranslationX(gestureEngine.getOffsetX());
+    rootView.setTranslationY(gestureEngine.getOffsetY());
+    followDrag(gestureEngine.getOffsetX(), gestureEngine.getOffsetY(), coalesceTouchEvents);
+    if (metrics != null) metrics.onMove();
+
+    // call back moved delta amount
+    dispatchFlicking(false);
+  }
+
+  /**
+   * @param force call back regardless of frame coalescing and change threshold
+   */
+  private void dispatchFlicking(boolean force) {
+
+    if (force) {
+      if (flickingPosted) {
+        Choreographer.getInstance().removeFrameCallback(flickingCallback);
+        flickingPosted = false;
       }
-    }));
+    } else if (coalesceOnFlicking && !coalesceTouchEvents) {
+      // moves are already applied once per frame when touch events are coalesced
+      if (!flickingPosted) {
+        Choreographer.getInstance().postFrameCallback(flickingCallback);
+        flickingPosted = true;
+      }
+      return;
+    }
 
-    compositeSubscription.add(Observable.create(new ObservableOnSubscribe<Pair<View, MotionEvent>>() {
-        @Override public void subscribe(final ObservableEmitter<Pair<View, MotionEvent>> subscriber) {
-            // create touch event observable
+    deliverFlicking(force);
+  }
 
-            final ViewGroup dialogView = (ViewGroup) LayoutInflater.from(getActivity())
-                .inflate(layoutResource, frameLayout, true);
+  /**
+   * call back the latest flicking amount
+   */
+  private void deliverFlicking(boolean force) {
 
-            dialogView.getChildAt(0).setOnTouchListener(new View.OnTouchListener() {
-              @Override public boolean onTouch(View v, MotionEvent event) {
+    final float verticalPercentage = gestureEngine.getVerticalPercentage();
+    final float horizontalPercentage = gestureEngine.getHorizontalPercentage();
 
-                subscriber.onNext(Pair.create(v, event));
-                return true;
-              }
-            });
+    if (!force
+        && Math.abs(verticalPercentage - deliveredVerticalPercentage) < onFlickingThreshold
+        && Math.abs(horizontalPercentage - deliveredHorizontalPercentage) < onFlickingThreshold) {
+      return;
+    }
+    deliveredVerticalPercentage = verticalPercentage;
+    deliveredHorizontalPercentage = horizontalPercentage;
 
-            if (onCreateView != null) onCreateView.onCreateView(dialogView);
-          }
-        }).doOnNext(new Consumer<Pair<View, MotionEvent>>() {
-          @Override public void accept(Pair<View, MotionEvent> viewMotionEventPair) {
-            // memorize default content position as member variables
-            if (defaultLeft == null || defaultTop == null) {
-              // the first initial position
-              defaultLeft = viewMotionEventPair.first.getLeft();
-              defaultTop = viewMotionEventPair.first.getTop();
-            }
-          }
-        }).doOnNext(new Consumer<Pair<View, MotionEvent>>() {
+    onFlicking(verticalPercentage, horizontalPercentage);
+    if (onFlickingListener != null) {
+      onFlickingListener.onFlicking(verticalPercentage, horizontalPercentage);
+    }
+  }
+
+  /**
+   * lighten dim as the card gets close to dismiss threshold and apply flick effects
+   *
+   * @param inFrame true when called in a frame callback, where effects are applied right now
+   */
+  private void followDrag(float translationX, float translationY, boolean inFrame) {
+    if (dimFollowsDrag) {
+      final float distance = Math.max(Math.abs(translationX), Math.abs(translationY));
+      dimView.setAlpha(1f - Math.min(1f, distance / gestureEngine.getDismissThreshold()));
+    }
+
+    if (flickEffects.isEmpty()) return;
+
+    effectTranslationX = translationX;
+    effectTranslationY = translationY;
+
+    if (inFrame) {
+      applyFlickEffects();
+    } else if (!effectsPosted) {
+      // apply in one pass with the latest position in this frame
+      Choreographer.getInstance().postFrameCallback(effectsCallback);
+      effectsPosted = true;
+    }
+  }
+
+  private void applyFlickEffects() {
+
+    final float dismissThreshold = gestureEngine.getDismissThreshold();
+    // same as flicking amount passed to onFlicking
+    final float horizontal = effectTranslationX / dismissThreshold;
+    final float vertical = -effectTranslationY / dismissThreshold;
+
+    final int xDirection;
+    if (effectTranslationX < 0) {
+      xDirection = effectTranslationY > 0
+          ? FlickableDialogListener.X_DIRECTION.LEFT_BOTTOM
+          : FlickableDialogListener.X_DIRECTION.LEFT_TOP;
+    } else {
+      xDirection = effectTranslationY > 0
+          ? FlickableDialogListener.X_DIRECTION.RIGHT_BOTTOM
+          : FlickableDialogListener.X_DIRECTION.RIGHT_TOP;
+    }
+
+    for (int i = 0, size = flickEffects.size(); i < size; i++) {
+      flickEffects.get(i).apply(horizontal, vertical, xDirection);
+    }
+  }
+
+  /**
+   * apply coalesced move right now, e.g. before the card is released
+   */
+  private void flushMove() {
+    if (movePosted) {
+      Choreographer.getInstance().removeFrameCallback(applyMoveCallback);
+      movePosted = false;
+      applyMove(cardView);
+    }
+  }
 
-          @Override public void accept(Pair<View, MotionEvent> viewMotionEventPair) {
-            // memorize touched down position as member variables
-            final View rootView = viewMotionEventPair.first;
-            final MotionEvent event = viewMotionEventPair.second;
+  /**
+   * feed touch positions to velocity estimation including historical samples
+   * coalesced into the event
+   */
+  private void addVelocitySamples(View rootView, MotionEvent event) {
 
-            if (event.getAction() == MotionEvent.ACTION_DOWN) {
+    final int historySize = event.getHistorySize();
 
-              final float height = rootView.getHeight();
+    if (historySize > 0) {
+      // historical coordinates are local to the rotated card,
+      // convert them to raw coordinates relative to the current event
+      final double radians = Math.toRadians(rootView.getRotation());
+      final float cos = (float) Math.cos(radians);
+      final float sin = (float) Math.sin(radians);
 
-              final float initY = rootView.getY();
+      for (int i = 0; i < historySize; i++) {
+        final float localDeltaX = event.getHistoricalX(i) - event.getX();
+        final float localDeltaY = event.getHistoricalY(i) - event.getY();
 
-              final float eventRawY = event.getRawY();
+        gestureEngine.addSample(event.getHistoricalEventTime(i),
+            event.getRawX() + localDeltaX * cos - localDeltaY * sin,
+            event.getRawY() + localDeltaX * sin + localDeltaY * cos);
+      }
+    }
 
-              final float verticalCenter = initY + height / 2;
+    gestureEngine.addSample(event.getEventTime(), event.getRawX(), event.getRawY());
+  }
 
-              touchedTopArea = eventRawY < verticalCenter;
+  /**
+   * back to original dialog position with animation
+   */
+  private void backToOrigin(final View rootView) {
+
+    // spring starts with the finger's velocity
+    physicsAnimator.springBack(rootView.getTranslationX(), rootView.getTranslationY(),
+        rootView.getRotation(), gestureEngine.getVelocityX(), gestureEngine.getVelocityY(),
+        new FlickPhysicsAnimator.Listener() {
+          @Override public void onPhysicsEnd(boolean canceled) {
+            rootView.setLayerType(View.LAYER_TYPE_NONE, null);
+
+            // not called back when touched again while coming back
+            if (!canceled) {
+              endFrameRecording();
+              onOriginBack();
             }
           }
-        }).flatMap(new Function<Pair<View, MotionEvent>, Observable<Pair<View, MotionEvent>>>() {
-          // move view with finger and rotate view as touched down position
-          @Override public Observable<Pair<View, MotionEvent>> apply(
-              final Pair<View, MotionEvent> viewMotionEventPair) {
-
-            return Observable.zip(Observable.just(viewMotionEventPair)
-                .map(new Function<Pair<View, MotionEvent>, Float>() {
-                  @Override public Float apply(Pair<View, MotionEvent> viewMotionEventPair) {
-
-                    return (float) (viewMotionEventPair.first.getLeft() - defaultLeft);
-                  }
-                }), Observable.just(viewMotionEventPair)
-                .map(new Function<Pair<View, MotionEvent>, Pair<Integer, Integer>>() {
-                  @Override
-                  public Pair<Integer, Integer> apply(Pair<View, MotionEvent> viewMotionEventPair) {
-
-                    int currentX = (int) viewMotionEventPair.second.getRawX();
-                    int currentY = (int) viewMotionEventPair.second.getRawY();
-
-                    final int left = viewMotionEventPair.first.getLeft() + (currentX - previousX);
-                    final int top = viewMotionEventPair.first.getTop() + (currentY - previousY);
-
-                    return Pair.create(left, top);
-                  }
-                }), new BiFunction<Float, Pair<Integer,Integer>, Pair<View,MotionEvent>>() {
-              @Override public Pair<View, MotionEvent> apply(Float verticalGap,
-                  Pair<Integer, Integer> leftTopPair) {
-                if (viewMotionEventPair.second.getAction() == MotionEvent.ACTION_MOVE) {
-                  // rotation
-                  if (touchedTopArea) {
-                    viewMotionEventPair.first.setRotation(verticalGap / -ROTATE_ANIMATION_EXPONENT);
-                  } else {
-                    viewMotionEventPair.first.setRotation(verticalGap / ROTATE_ANIMATION_EXPONENT);
-                  }
-
-                  // position
-                  View rootView = viewMotionEventPair.first;
-                  rootView.layout(leftTopPair.first, leftTopPair.second,
-                      leftTopPair.first + rootView.getWidth(),
-                      leftTopPair.second + rootView.getHeight());
-                }
-                return viewMotionEventPair;
-              }
-            });
-          }
-        }).doOnNext(new Consumer<Pair<View, MotionEvent>>() {
-          @Override public void accept(Pair<View, MotionEvent> pair) {
-            // memorize previous position as member variables
+        });
+  }
 
-            final MotionEvent event = pair.second;
+  /**
+   * create and start throwing animation, then dismiss
+   */
+  private void throwAway(final View rootView) {
+
+    if (metrics != null) metrics.onRelease(System.nanoTime());
+
+    final float fromX = rootView.getTranslationX();
+    final float fromY = rootView.getTranslationY();
+    final float toRotation = qualityLevel < FlickQualityGovernor.LEVEL_NO_ROTATION
+        ? gestureEngine.getThrowRotation() : rootView.getRotation();
+    float toX = gestureEngine.getThrowTranslationX(THROW_ANIMATION_DURATION);
+    float toY = gestureEngine.getThrowTranslationY(THROW_ANIMATION_DURATION);
+
+    // fly just out of the screen in the thrown direction, not farther and not shorter
+    final float length = (float) Math.hypot(toX - fromX, toY - fromY);
+    if (length > 0f && frameLayout.getWidth() > 0 && frameLayout.getHeight() > 0) {
+      final float directionX = (toX - fromX) / length;
+      final float directionY = (toY - fromY) / length;
+      final float distance = FlickExitBounds.exitDistance(
+          rootView.getLeft() + rootView.getPivotX() + fromX,
+          rootView.getTop() + rootView.getPivotY() + fromY,
+          FlickExitBounds.halfWidth(rootView.getWidth(), rootView.getHeight(), toRotation),
+          FlickExitBounds.halfHeight(rootView.getWidth(), rootView.getHeight(), toRotation),
+          directionX, directionY, frameLayout.getWidth(), frameLayout.getHeight());
+      toX = fromX + directionX * distance;
+      toY = fromY + directionY * distance;
+    }
 
-            previousX = (int) event.getRawX();
-            previousY = (int) event.getRawY();
-          }
-        }).flatMap(new Function<Pair<View, MotionEvent>, Observable<Pair<View, MotionEvent>>>() {
-          @Override
-          public Observable<Pair<View, MotionEvent>> apply(final Pair<View, MotionEvent> pair) {
-
-            return Observable.just(pair).map(new Function<Pair<View, MotionEvent>, View>() {
-              @Override public View apply(Pair<View, MotionEvent> pair) {
-                return pair.first;
-              }
-            }).map(new Function<View, Pair<Integer, Integer>>() {
-              // convert to delta amounts between origin and current position
-              @Override public Pair<Integer, Integer> apply(View rootView) {
-
-                int deltaX = defaultLeft - rootView.getLeft();
-                int deltaY = defaultTop - rootView.getTop();
-
-                return Pair.create(deltaX, deltaY);
-              }
-            }).doOnNext(new Consumer<Pair<Integer, Integer>>() {
-              // call back moved delta amount
-              @Override public void accept(Pair<Integer, Integer> deltaXYPair) {
-                float percentageX = deltaXYPair.first / DISMISS_THRESHOLD;
-                float percentageY = deltaXYPair.second / DISMISS_THRESHOLD;
-                onFlicking(-percentageX, percentageY);
-              }
-            }).map(new Function<Pair<Integer, Integer>, Pair<View, MotionEvent>>() {
-              @Override
-              public Pair<View, MotionEvent> apply(Pair<Integer, Integer> integerIntegerPair) {
-                return pair;
-              }
-            });
-          }
-        }).filter(new Predicate<Pair<View, MotionEvent>>() {
-          @Override public boolean test(Pair<View, MotionEvent> pair) {
-            return pair.second.getAction() == MotionEvent.ACTION_UP;
-          }
-        }).flatMap(new Function<Pair<View, MotionEvent>, Observable<Pair<View, MotionEvent>>>() {
-          // check delta amounts
-          @Override public Observable<Pair<View, MotionEvent>> apply(
-              final Pair<View, MotionEvent> pair) {
-
-            return Observable.just(pair).map(new Function<Pair<View, MotionEvent>, View>() {
-              @Override public View apply(Pair<View, MotionEvent> pair) {
-                return pair.first;
-              }
-            }).map(new Function<View, Pair<Integer, Integer>>() {
-              // convert to delta amounts between origin and current position
-              @Override public Pair<Integer, Integer> apply(View rootView) {
-
-                int deltaX = defaultLeft - rootView.getLeft();
-                int deltaY = defaultTop - rootView.getTop();
-
-                return Pair.create(deltaX, deltaY);
-              }
-            }).flatMap(new Function<Pair<Integer, Integer>, Observable<Pair<View, MotionEvent>>>() {
-              @Override public Observable<Pair<View, MotionEvent>> apply(
-                  final Pair<Integer, Integer> deltaXYPair) {
-                // judge if flicking amount is over dismiss threshold
-                if (Math.abs(deltaXYPair.first) > DISMISS_THRESHOLD
-                    || Math.abs(deltaXYPair.second) > DISMISS_THRESHOLD) {
-                  // flicking amount is over threshold
-                  // -> streams go below to animate throwing
-                  return Observable.just(deltaXYPair)
-                      .map(new Function<Pair<Integer, Integer>, Pair<View, MotionEvent>>() {
-                        @Override public Pair<View, MotionEvent> apply(
-                            Pair<Integer, Integer> integerIntegerPair) {
-                          return pair;
-                        }
-                      });
-                } else {
-                  // back to original dialog position with animation
-                  // -> streams is terminated with animate back to origin
-                  final int originBackAnimationDuration = 300;
-
-                  return Observable.just(deltaXYPair)
-                      .doOnNext(new Consumer<Pair<Integer, Integer>>() {
-                        @Override public void accept(Pair<Integer, Integer> deltaXYPair) {
-
-                          PropertyValuesHolder horizontalAnimation =
-                              PropertyValuesHolder.ofFloat("translationX", deltaXYPair.first);
-                          PropertyValuesHolder verticalAnimation =
-                              PropertyValuesHolder.ofFloat("translationY", deltaXYPair.second);
-                          PropertyValuesHolder rotateAnimation =
-                              PropertyValuesHolder.ofFloat("rotation", 0f);
-
-                          ObjectAnimator originBackAnimation =
-                              ObjectAnimator.ofPropertyValuesHolder(pair.first, horizontalAnimation,
-                                  verticalAnimation, rotateAnimation);
-
-                          originBackAnimation.setInterpolator(
-                              new AccelerateDecelerateInterpolator());
-
-                          originBackAnimation.setDuration(originBackAnimationDuration);
-
-                          originBackAnimation.start();
-                        }
-                      })
-                      .flatMap(new Function<Pair<Integer, Integer>, Observable<?>>() {
-                        @Override
-                        public Observable<?> apply(Pair<Integer, Integer> integerIntegerPair) {
-                          return Observable.just(1)
-                              .delay(originBackAnimationDuration, TimeUnit.MILLISECONDS)
-                              .observeOn(mainThread());
-                        }
-                      })
-                      .doOnNext(new Consumer<Object>() {
-                        @Override public void accept(Object o) {
-                          onOriginBack();
-                        }
-                      })
-                      .flatMap(new Function<Object, Observable<Pair<View, MotionEvent>>>() {
-                        @Override public Observable<Pair<View, MotionEvent>> apply(Object o) {
-                          return Observable.empty();
-                        }
-                      });
-                }
-              }
-            });
-          }
-        }).flatMap(new Function<Pair<View, MotionEvent>, Observable<Pair<View, MotionEvent>>>() {
-          @Override
-          public Observable<Pair<View, MotionEvent>> apply(final Pair<View, MotionEvent> pair) {
-            // create and start throwing animation
-            return Observable.just(pair.first).map(new Function<View, Pair<Integer, Integer>>() {
-              // convert to delta amounts between origin and current position
-              @Override public Pair<Integer, Integer> apply(View rootView) {
-
-                int deltaX = defaultLeft - rootView.getLeft();
-                int deltaY = defaultTop - rootView.getTop();
-
-                return Pair.create(deltaX, deltaY);
-              }
-            }).flatMap(new Function<Pair<Integer, Integer>, Observable<Pair<View, MotionEvent>>>() {
-              @Override public Observable<Pair<View, MotionEvent>> apply(
-                  Pair<Integer, Integer> integerIntegerPair) {
-                // make and start throwing animation
-                return Observable.zip(Observable.just(integerIntegerPair)
-                        .map(new Function<Pair<Integer, Integer>, PropertyValuesHolder>() {
-                          @Override
-                          public PropertyValuesHolder apply(Pair<Integer, Integer> deltaXYPair) {
-                            // make rotate animation
-                            float rotation;
-                            if (touchedTopArea) {
-                              rotation = deltaXYPair.first / DISMISS_THRESHOLD * 540f;
-                            } else {
-                              rotation = deltaXYPair.first / DISMISS_THRESHOLD * -540f;
-                            }
-                            PropertyValuesHolder rotateAnimation =
-                                PropertyValuesHolder.ofFloat("rotation", rotation);
-
-                            return rotateAnimation;
-                          }
-                        }), Observable.just(integerIntegerPair)
-                        .map(
-                            new Function<Pair<Integer, Integer>, Pair<PropertyValuesHolder, PropertyValuesHolder>>() {
-                              @Override public Pair<PropertyValuesHolder, PropertyValuesHolder> apply(
-                                  Pair<Integer, Integer> deltaXYPair) {
-                                // make position transit animation
-                                PropertyValuesHolder horizontalAnimation =
-                                    PropertyValuesHolder.ofFloat("translationX",
-                                        -10 * deltaXYPair.first);
-
-                                PropertyValuesHolder verticalAnimation =
-                                    PropertyValuesHolder.ofFloat("translationY",
-                                        -10 * deltaXYPair.second);
-
-                                return Pair.create(horizontalAnimation, verticalAnimation);
-                              }
-                            }), Observable.just(integerIntegerPair)
-                        .map(new Function<Pair<Integer, Integer>, ObjectAnimator>() {
-                          @Override
-                          public ObjectAnimator apply(Pair<Integer, Integer> integerIntegerPair) {
-                            // make background alpha transit animation
-                            ObjectAnimator alphaAnimation =
-                                ObjectAnimator.ofFloat(pair.first.getRootView(), "alpha", 1f, 0f);
-                            alphaAnimation.setDuration(400);
-
-                            return alphaAnimation;
-                          }
-                        }),
-                    new Function3<PropertyValuesHolder, Pair<PropertyValuesHolder, PropertyValuesHolder>, ObjectAnimator, Pair<View, MotionEvent>>() {
-                      @Override
-                      public Pair<View, MotionEvent> apply(PropertyValuesHolder propertyValuesHolder,
-                          Pair<PropertyValuesHolder, PropertyValuesHolder> propertyValuesHolderPropertyValuesHolderPair,
-                          ObjectAnimator alphaAnimation) {
-                        // zip and do animation
-
-                        ObjectAnimator throwingAnimation =
-                            ObjectAnimator.ofPropertyValuesHolder(pair.first, propertyValuesHolder,
-                                propertyValuesHolderPropertyValuesHolderPair.first,
-                                propertyValuesHolderPropertyValuesHolderPair.second);
-                        throwingAnimation.setInterpolator(new AccelerateDecelerateInterpolator());
-                        throwingAnimation.setDuration(400);
-
-                        alphaAnimation.setDuration(400);
-
-                        throwingAnimation.start();
-                        alphaAnimation.start();
-
-                        return pair;
-                      }
-                    });
-              }
-            });
-          }
-        }).flatMap(new Function<Pair<View, MotionEvent>, Observable<Pair<View, MotionEvent>>>() {
-          // waiting animation end
-          @Override public Observable<Pair<View, MotionEvent>> apply(
-              Pair<View, MotionEvent> viewMotionEventPair) {
-
-            return Observable.just(viewMotionEventPair)
-                .delay(400, TimeUnit.MILLISECONDS)
-                .observeOn(mainThread());
-          }
-        }).flatMap(new Function<Pair<View, MotionEvent>, Observable<Pair<View, MotionEvent>>>() {
-          @Override public Observable<Pair<View, MotionEvent>> apply(
-              final Pair<View, MotionEvent> viewMotionEventPair) {
-
-            return Observable.just(viewMotionEventPair.first)
-                .map(new Function<View, Pair<Integer, Integer>>() {
-                  // convert to delta amounts between origin and current position
-                  @Override public Pair<Integer, Integer> apply(View rootView) {
-
-                    int deltaX = defaultLeft - rootView.getLeft();
-                    int deltaY = defaultTop - rootView.getTop();
-
-                    return Pair.create(deltaX, deltaY);
-                  }
-                })
-                .doOnNext(new Consumer<Pair<Integer, Integer>>() {
-                  // call back X direction
-                  @Override public void accept(Pair<Integer, Integer> integerIntegerPair) {
-                    if (onFlickedXDirectionListener != null) {
-                      if (integerIntegerPair.first > 0) {
-                        if (integerIntegerPair.second < 0) {
-                          onFlickedXDirectionListener.onFlickableDialogFlicked(FlickableDialogListener.X_DIRECTION.LEFT_BOTTOM);
-                        } else {
-                          onFlickedXDirectionListener.onFlickableDialogFlicked(
-                              FlickableDialogListener.X_DIRECTION.LEFT_TOP);
-                        }
-                      } else {
-                        if (integerIntegerPair.second < 0) {
-                          onFlickedXDirectionListener.onFlickableDialogFlicked(
-                              FlickableDialogListener.X_DIRECTION.RIGHT_BOTTOM);
-                        } else {
-                          onFlickedXDirectionListener.onFlickableDialogFlicked(
-                              FlickableDialogListener.X_DIRECTION.RIGHT_TOP);
-                        }
-                      }
-                    }
-                  }
-                })
-                .map(new Function<Pair<Integer, Integer>, Pair<View, MotionEvent>>() {
-                  @Override
-                  public Pair<View, MotionEvent> apply(Pair<Integer, Integer> integerIntegerPair) {
-                    return viewMotionEventPair;
-                  }
-                });
-          }
-        }).doOnSubscribe(new Consumer<Disposable>() {
-          @Override public void accept(Disposable disposable) {
+    // make throwing animation, flicked card flies on with its velocity
+    physicsAnimator.fling(fromX, fromY, rootView.getRotation(), toX, toY, toRotation,
+        gestureEngine.getVelocityX(), gestureEngine.getVelocityY(),
+        new FlickPhysicsAnimator.Listener() {
+          @Override public void onPhysicsEnd(boolean canceled) {
+            rootView.setLayerType(View.LAYER_TYPE_NONE, null);
 
-            ObjectAnimator alphaAnimation = ObjectAnimator.ofFloat(frameLayout, "alpha", 0f, 1f);
-            alphaAnimation.setDuration(200);
-            alphaAnimation.start();
-          }
-        }).subscribe(new Consumer<Pair<View, MotionEvent>>() {
-          @Override public void accept(Pair<View, MotionEvent> view) {
-            dismiss();
+            // dismissed in another way while throwing
+            if (canceled) return;
+
+            endFrameRecording();
+            onCardThrown(gestureEngine.getXDirection());
           }
-        }));
+        });
 
-    Dialog dialog =
-        new Dialog(getActivity(), android.R.style.Theme_Translucent_NoTitleBar_Fullscreen);
-    dialog.setContentView(frameLayout);
-    dialog.setCancelable(cancelable);
-    dialog.setOnCancelListener(new Dialog.OnCancelListener() {
-      @Override public void onCancel(DialogInterface dialog) {
+    // the rest of the deck stays, and the dim goes with the dialog at once on low quality
+    if (!isLastCard() || qualityLevel >= FlickQualityGovernor.LEVEL_NO_FADE) return;
 
-        if(onFlickableDialogCanceled != null){
-          onFlickableDialogCanceled.onFlickableDialogCanceled();
-        }
-      }
-    });
+    // make dim alpha transit animation, the card is not composed with it
+    dimView.animate().alpha(0f).setDuration(physicsAnimator.getFlingDuration());
+    if (backdropView != null) {
+      backdropView.animate().alpha(0f).setDuration(physicsAnimator.getFlingDuration());
+    }
+  }
 
-    return dialog;
+  /**
+   * read quality level for the coming gesture
+   */
+  private void applyQualityLevel() {
+    qualityLevel = FlickQualityGovernor.getLevel();
+    physicsAnimator.setSpeed(
+        qualityLevel >= FlickQualityGovernor.LEVEL_SHORT_DURATION ? 2f : 1f);
+  }
+
+  /**
+   * @return true when the rotated card is entirely out of the dialog window
+   */
+  private boolean isCardOutside() {
+    if (frameLayout.getWidth() == 0 || frameLayout.getHeight() == 0) return false;
+
+    final float rotation = cardView.getRotation();
+    return FlickExitBounds.isOutside(
+        cardView.getLeft() + cardView.getPivotX() + cardView.getTranslationX(),
+        cardView.getTop() + cardView.getPivotY() + cardView.getTranslationY(),
+        FlickExitBounds.halfWidth(cardView.getWidth(), cardView.getHeight(), rotation),
+        FlickExitBounds.halfHeight(cardView.getWidth(), cardView.getHeight(), rotation),
+        frameLayout.getWidth(), frameLayout.getHeight());
+  }
+
+  /**
+   * animations may end after dialog is dismissed in another way
+   */
+  void dismissIfAdded() {
+    // overlay disappears right now instead of when the transaction is executed
+    if (!getShowsDialog()) detachOverlay();
+    if (isAdded()) dismiss();
+  }
+
+  private void detachOverlay() {
+    if (frameLayout != null && frameLayout.getParent() != null) {
+      ((ViewGroup) frameLayout.getParent()).removeView(frameLayout);
+    }
   }
 
+  /**
+   * call back X direction
+   */
+  void notifyFlicked(int xDirection) {
+    if (onFlickedXDirectionListener != null) {
+      onFlickedXDirectionListener.onFlickableDialogFlicked(xDirection);
+    }
+    if (onFlickedWithVelocityListener != null) {
+      onFlickedWithVelocityListener.onFlickableDialogFlicked(xDirection,
+          gestureEngine.getVelocityX(), gestureEngine.getVelocityY());
+    }
+  }
+
+  private void notifyCanceled() {
+    if (onFlickableDialogCanceled != null) {
+      onFlickableDialogCanceled.onFlickableDialogCanceled();
+    }
+  }
 
   @Nullable private FlickableDialogListener.OnFlickedXDirection onFlickedXDirectionListener;
 
+  @Nullable private FlickableDialogListener.OnFlickedWithVelocity onFlickedWithVelocityListener;
+
   @Nullable private FlickableDialogListener.OnCanceled onFlickableDialogCanceled;
 
+  @Nullable private FlickableDialogListener.OnFlicking onFlickingListener;
+
+  private final ArrayList<FlickableDialogListener.OnDismissed> onDismissedListeners =
+      new ArrayList<>();
+
   public void setOnFlick(FlickableDialogListener.OnFlickedXDirection onFlickedXDirectionListener) {
     this.onFlickedXDirectionListener = onFlickedXDirectionListener;
   }
 
+  public void setOnFlickWithVelocity(
+      FlickableDialogListener.OnFlickedWithVelocity onFlickedWithVelocityListener) {
+    this.onFlickedWithVelocityListener = onFlickedWithVelocityListener;
+  }
+
+  /**
+   * listen flicking amount without overriding {@link #onFlicking(float, float)}
+   *
+   * @version 0.10.0
+   */
+  public void setOnFlicking(@Nullable FlickableDialogListener.OnFlicking onFlickingListener) {
+    this.onFlickingListener = onFlickingListener;
+  }
+
+  /**
+   * @param flingVelocityThreshold velocity in pixels per second over which released dialog is
+   * thrown even if it is inside dismiss threshold (default : 1500dp per second)
+   * @version 0.10.0
+   */
+  public void setFlingVelocityThreshold(float flingVelocityThreshold) {
+    this.flingVelocityThreshold = flingVelocityThreshold;
+  }
+
+  /**
+   * apply position, rotation and {@link #onFlicking(float, float)} at most once per display
+   * frame with the latest touch position, instead of once per move event.
+   * This saves main thread work on touch screens sampling faster than display refresh rate.
+   *
+   * @version 0.10.0
+   */
+  public void setCoalesceTouchEvents(boolean coalesceTouchEvents) {
+    this.coalesceTouchEvents = coalesceTouchEvents;
+  }
+
+  /**
+   * call {@link #onFlicking(float, float)} and {@link #setOnFlicking} listener at most once per
+   * display frame with the latest flicking amount, while the card itself still follows every
+   * move event. Touch down and release are called back right away.
+   *
+   * @version 0.10.0
+   */
+  public void setCoalesceOnFlicking(boolean coalesceOnFlicking) {
+    this.coalesceOnFlicking = coalesceOnFlicking;
+  }
+
+  /**
+   * skip calling back {@link #onFlicking(float, float)} on moves until either flicking amount
+   * changes by the threshold from the last called back one (default : 0, every move)
+   *
+   * @param onFlickingThreshold change of flicking amount in percentage
+   * @version 0.10.0
+   */
+  public void setOnFlickingThreshold(float onFlickingThreshold) {
+    this.onFlickingThreshold = onFlickingThreshold;
+  }
+
+  /**
+   * bind a property of a view in the card to flicking amount.
+   * Effects are applied once per frame while dragging and coming back to origin. They are put
+   * back to their from values and removed in {@link #onDestroyView()}, so they must be bound
+   * again on every show, e.g. in the {@link #onCreateView(OnCreateView)} callback, which
+   * receives the card on every show both as a dialog and as an overlay.
+   *
+   * @version 0.10.0
+   */
+  public void addFlickEffect(@NonNull FlickEffect flickEffect) {
+    flickEffects.add(flickEffect);
+  }
+
+  /**
+   * @version 0.10.0
+   */
+  public void removeFlickEffect(@NonNull FlickEffect flickEffect) {
+    flickEffects.remove(flickEffect);
+  }
+
+  /**
+   * record touch events of every gesture on the dialog, e.g. to replay a regression in tests.
+   *
+   * @param gestureListener null to stop recording
+   * @version 0.10.0
+   */
+  public void setOnGestureRecorded(@Nullable FlickGestureTrace.Listener gestureListener) {
+    this.gestureListener = gestureListener;
+  }
+
+  /**
+   * record Choreographer frame intervals while the card is dragged and animated.
+   * The listener receives a histogram of every gesture.
+   *
+   * @param frameTimeListener null to stop recording
+   * @version 0.10.0
+   */
+  public void setOnFrameTimes(@Nullable FrameTimeHistogram.Listener frameTimeListener) {
+    this.frameTimeListener = frameTimeListener;
+  }
+
+  /**
+   * install listener receiving show and dismiss latencies of every dialog once it is dismissed.
+   * Nothing is recorded while no listener is installed.
+   *
+   * @param listener null to stop recording
+   * @version 0.10.0
+   */
+  public static void setMetricsListener(@Nullable FlickableDialogMetrics.Listener listener) {
+    metricsListener = listener;
+  }
+
   public void setOnCancel(FlickableDialogListener.OnCanceled onFlickableDialogCanceled) {
     this.onFlickableDialogCanceled = onFlickableDialogCanceled;
   }
 
+  /**
+   * listen the dialog going away, also when this instance is destroyed by configuration change
+   * as its listeners are released then. Each listener is called back once.
+   *
+   * @version 0.10.0
+   */
+  public void addOnDismissed(@NonNull FlickableDialogListener.OnDismissed onDismissed) {
+    onDismissedListeners.add(onDismissed);
+  }
+
+  /**
+   * @version 0.10.0
+   */
+  public void removeOnDismissed(@NonNull FlickableDialogListener.OnDismissed onDismissed) {
+    onDismissedListeners.remove(onDismissed);
+  }
+
   public void setCanceledOnTouchOutside(boolean cancel) {
     this.cancelAndDismissTaken = cancel;
   }
 
-  public void setCancelable(boolean flag) {
-    this.cancelable = flag;
+  /**
+   * make dim lighter as the card is flicked toward dismiss threshold (default : false)
+   *
+   * @version 0.10.0
+   */
+  public void setDimFollowsDrag(boolean dimFollowsDrag) {
+    this.dimFollowsDrag = dimFollowsDrag;
   }
 
-  @Override public void onDetach() {
+  /**
+   * show blurred snapshot of the activity behind the dim (default : false).
+   * The snapshot is taken at reduced resolution after the first frame, blurred on a background
+   * thread and faded in when it is ready.
+   *
+   * @version 0.10.0
+   */
+  public void setBlurBackdrop(boolean blurBackdrop) {
+    this.blurBackdrop = blurBackdrop;
+  }
+
+  /**
+   * present the card and dim background as an overlay in the decor view of the host activity
+   * instead of a Dialog window. This skips creating a window and its surface on every show.
+   * Call this before showing.
+   *
+   * @version 0.10.0
+   */
+  public void setPresentAsOverlay(boolean presentAsOverlay) {
+    if (getArguments() == null) setArguments(new Bundle());
+    getArguments().putBoolean(OVERLAY_KEY, presentAsOverlay);
+  }
 
-    compositeSubscription.dispose();
+  private void stopAndRelease() {
+
+    deliverMetrics();
+    endFrameRecording();
+    runDismissedHook();
+    removeBackdrop();
+
+    if (frameLayout != null) {
+      frameLayout.setOnClickListener(null);
+      frameLayout.setOnTouchListener(null);
+    }
+    Choreographer.getInstance().removeFrameCallback(applyMoveCallback);
+    movePosted = false;
+    Choreographer.getInstance().removeFrameCallback(flickingCallback);
+    flickingPosted = false;
+    Choreographer.getInstance().removeFrameCallback(effectsCallback);
+    effectsPosted = false;
+    physicsAnimator.cancel();
 
     onFlickedXDirectionListener = null;
+    onFlickedWithVelocityListener = null;
     onFlickableDialogCanceled = null;
+    onFlickingListener = null;
+    frameTimeListener = null;
+    gestureListener = null;
 
-    super.onDetach();
+    notifyDismissed();
   }
 
-  @Override public void onDismiss(DialogInterface dialogInterface) {
+  private void notifyDismissed() {
+    if (onDismissedListeners.isEmpty()) return;
 
-    compositeSubscription.dispose();
+    // listeners may remove themselves
+    final FlickableDialogListener.OnDismissed[] listeners = onDismissedListeners.toArray(
+        new FlickableDialogListener.OnDismissed[onDismissedListeners.size()]);
+    onDismissedListeners.clear();
+    for (FlickableDialogListener.OnDismissed listener : listeners) {
+      listener.onFlickableDialogDismissed();
+    }
+  }
+
+  private void recordGesture(int target, View view, MotionEvent event) {
+    if (gestureRecorder == null) gestureRecorder = new FlickGestureRecorder();
+
+    final FlickGestureTrace trace = gestureRecorder.onTouchEvent(target, view, event);
+    if (trace != null) gestureListener.onGestureRecorded(trace);
+  }
+
+  /**
+   * record frame times from touch down until the card settles or is thrown away
+   */
+  private void startFrameRecording() {
+    if (frameTimeListener == null && !FlickQualityGovernor.isAdaptive()) return;
+
+    // touched again while animating
+    endFrameRecording();
+
+    if (frameTimeHistogram == null) {
+      final float refreshRate =
+          getActivity().getWindowManager().getDefaultDisplay().getRefreshRate();
+      frameTimeHistogram = new FrameTimeHistogram((long) (1e9 / refreshRate));
+    }
+    frameTimeHistogram.reset();
+
+    recordingFrames = true;
+    Choreographer.getInstance().postFrameCallback(frameTimeCallback);
+  }
+
+  private void endFrameRecording() {
+    if (!recordingFrames) return;
+
+    recordingFrames = false;
+    Choreographer.getInstance().removeFrameCallback(frameTimeCallback);
+    FlickQualityGovernor.onGesture(frameTimeHistogram);
+    if (frameTimeListener != null) frameTimeListener.onFrameTimes(frameTimeHistogram);
+  }
+
+  private void runDismissedHook() {
+    final Runnable hook = onDismissedHook;
+    if (hook == null) return;
+
+    // dialog recreated by configuration change is not dismissed
+    if (getActivity() != null && getActivity().isChangingConfigurations()) return;
+
+    onDismissedHook = null;
+    hook.run();
+  }
+
+  void setOnDismissedHook(@Nullable Runnable onDismissedHook) {
+    this.onDismissedHook = onDismissedHook;
+  }
+
+  @LayoutRes int getLayoutResource() {
+    return getArguments().getInt(LAYOUT_RESOURCE_KEY);
+  }
+
+  private void beginMetrics(boolean overlay) {
+    if (metricsListener == null) return;
+
+    metrics = new FlickableDialogMetrics(getArguments().getInt(LAYOUT_RESOURCE_KEY), overlay,
+        System.nanoTime());
+  }
+
+  private void deliverMetrics() {
+
+    final FlickableDialogMetrics metrics = this.metrics;
+    if (metrics == null) return;
+    this.metrics = null;
+
+    if (drawObserver != null && drawObserver.isAlive()) {
+      drawObserver.removeOnDrawListener(metricsDrawListener);
+    }
+    drawObserver = null;
+
+    // dialog recreated by configuration change is not dismissed
+    if (getActivity() != null && getActivity().isChangingConfigurations()) return;
+
+    metrics.onDismiss(System.nanoTime());
+    if (metricsListener != null) metricsListener.onFlickableDialogMetrics(metrics);
+  }
+
+  @Override public void onDetach() {
 
     onFlickedXDirectionListener = null;
+    onFlickedWithVelocityListener = null;
     onFlickableDialogCanceled = null;
+    onFlickingListener = null;
+    frameTimeListener = null;
+    gestureListener = null;
+
+    super.onDetach();
+  }
+
+  @Override public void onCancel(DialogInterface dialogInterface) {
+    super.onCancel(dialogInterface);
+
+    // back key on the dialog window
+    notifyCanceled();
+  }
+
+  @Override public void onDismiss(DialogInterface dialogInterface) {
+
+    stopAndRelease();
 
     super.onDismiss(dialogInterface);
   }
-}
\ No newline at end of file
+
+  @Override public void onDestroyView() {
+
+    final Dialog dialog = getDialog();
+
+    // dismisses the dialog
+    super.onDestroyView();
+
+    if (!getShowsDialog()) {
+      // no dialog to be dismissed in overlay mode
+      stopAndRelease();
+      detachOverlay();
+    }
+
+    // pooled card is shown again from origin
+    for (int i = 0, size = flickEffects.size(); i < size; i++) {
+      flickEffects.get(i).reset();
+    }
+    flickEffects.clear();
+
+    // recreated activity inflates its own hierarchy
+    if (cardView != null && layoutResource != 0 && !getActivity().isChangingConfigurations()) {
+      FlickableDialogPool.getInstance()
+          .release(getActivity(), layoutResource, cardView, frameLayout, dialog);
+    }
+  }
+}
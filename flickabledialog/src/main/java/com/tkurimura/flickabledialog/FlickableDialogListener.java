@@ -19,6 +19,49 @@ public class FlickableDialogListener {
     void onFlickableDialogFlicked(int xDirection);
   }
 
+  public interface OnFlickedWithVelocity {
+    /**
+     * callback flicking direction in categorization of X area with velocity at release
+     *
+     * @param xDirection LEFT_TOP,RIGHT_TOP,RIGHT_BOTTOM,LEFT_BOTTOM
+     * @param velocityX horizontal velocity in pixels per second
+     * @param velocityY vertical velocity in pixels per second
+     * @version 0.10.0
+     */
+    void onFlickableDialogFlicked(int xDirection, float velocityX, float velocityY);
+  }
+
+  public interface OnFlicking {
+    /**
+     * callback flicking amount from original position to dismiss threshold on every move
+     *
+     * @param verticalPercentage vertical flicking amount(-100 : top, 0 : origin. 100 : bottom)
+     * @param horizontalPercentage horizontal flicking amount(-100 : left, 0 : origin. 100 : right)
+     * @version 0.10.0
+     */
+    void onFlicking(float verticalPercentage, float horizontalPercentage);
+  }
+
+  public interface OnDeckCardFlicked {
+    /**
+     * callback flicking direction of each card of {@link FlickableDeckDialog}
+     *
+     * @param xDirection LEFT_TOP,RIGHT_TOP,RIGHT_BOTTOM,LEFT_BOTTOM
+     * @param position position of the flicked card in the adapter
+     * @version 0.10.0
+     */
+    void onDeckCardFlicked(int xDirection, int position);
+  }
+
+  public interface OnDismissed {
+    /**
+     * callback the dialog went away, after which no other listener is called back
+     *
+     * @version 0.10.0
+     */
+    void onFlickableDialogDismissed();
+  }
+
   public interface OnCanceled {
     /**
      * callback touched outside or pressed back key.
@@ -0,0 +1,133 @@
+package com.tkurimura.flickabledialog;
+
+import android.support.annotation.LayoutRes;
+
+/**
+ * Show and dismiss latencies of one dialog, delivered once when the dialog is dismissed.
+ * All durations are in nanoseconds, {@link #NONE} when the event did not happen.
+ *
+ * @version 0.10.0
+ * @see FlickableDialog#setMetricsListener(Listener)
+ */
+public class FlickableDialogMetrics {
+
+  public interface Listener {
+    void onFlickableDialogMetrics(FlickableDialogMetrics metrics);
+  }
+
+  public static final long NONE = -1;
+
+  @LayoutRes private final int layoutResource;
+  private final boolean overlay;
+  private final long createNanos;
+
+  private boolean pooled;
+  private long inflatedNanos = NONE;
+  private long firstFrameNanos = NONE;
+  private long downNanos = NONE;
+  private boolean movePending;
+  private long movedFrameNanos = NONE;
+  private long releaseNanos = NONE;
+  private long outsideTapNanos = NONE;
+  private long dismissNanos = NONE;
+
+  FlickableDialogMetrics(@LayoutRes int layoutResource, boolean overlay, long createNanos) {
+    this.layoutResource = layoutResource;
+    this.overlay = overlay;
+    this.createNanos = createNanos;
+  }
+
+  void onInflated(long nanos, boolean pooled) {
+    this.inflatedNanos = nanos;
+    this.pooled = pooled;
+  }
+
+  void onDraw(long nanos) {
+    if (firstFrameNanos == NONE) firstFrameNanos = nanos;
+    if (movePending) {
+      movedFrameNanos = nanos;
+      movePending = false;
+    }
+  }
+
+  /**
+   * only the first gesture is measured
+   */
+  void onDown(long nanos) {
+    if (downNanos == NONE) downNanos = nanos;
+  }
+
+  void onMove() {
+    if (downNanos != NONE && movedFrameNanos == NONE) movePending = true;
+  }
+
+  void onRelease(long nanos) {
+    releaseNanos = nanos;
+  }
+
+  void onOutsideTap(long nanos) {
+    outsideTapNanos = nanos;
+  }
+
+  void onDismiss(long nanos) {
+    dismissNanos = nanos;
+  }
+
+  @LayoutRes public int getLayoutResource() {
+    return layoutResource;
+  }
+
+  /**
+   * @return true when presented as overlay instead of a Dialog window
+   */
+  public boolean isOverlay() {
+    return overlay;
+  }
+
+  /**
+   * @return true when inflation was skipped by {@link FlickableDialogPool}
+   */
+  public boolean isPooled() {
+    return pooled;
+  }
+
+  /**
+   * @return from start of creating the dialog to the card inflated
+   */
+  public long getInflationNanos() {
+    return between(createNanos, inflatedNanos);
+  }
+
+  /**
+   * @return from start of creating the dialog to its first frame drawn
+   */
+  public long getFirstFrameNanos() {
+    return between(createNanos, firstFrameNanos);
+  }
+
+  /**
+   * @return from the first touch down to the frame drawing the card moved
+   */
+  public long getTouchToMoveNanos() {
+    return between(downNanos, movedFrameNanos);
+  }
+
+  /**
+   * @return from releasing the thrown card to dismiss
+   */
+  public long getReleaseToDismissNanos() {
+    return between(releaseNanos, dismissNanos);
+  }
+
+  /**
+   * @return from tapping outside the card to dismiss
+   */
+  public long getOutsideTapToDismissNanos() {
+    return between(outsideTapNanos, dismissNanos);
+  }
+
+  private static long between(long from, long to) {
+    if (from == NONE || to == NONE) return NONE;
+    return to - from;
+  }
+}
@@ -0,0 +1,241 @@
+package com.tkurimura.flickabledialog;
+
+import android.app.Activity;
+import android.app.Application;
+import android.app.Dialog;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Bundle;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.Nullable;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps detached card hierarchies, and optionally their Dialog windows, per layout resource
+ * so that showing the same card again skips inflation.
+ * The pool is disabled until {@link #setMaxSize(int)} is called with a positive size.
+ * Entries are evicted in least recently used order, and released on memory trim or when
+ * the Activity they are inflated for is destroyed.
+ * Pooled cards are reset to their origin position, but state of their subviews
+ * (texts, checked states, listeners...) is kept, so set it up every time it is shown.
+ * Access it from the main thread.
+ *
+ * @version 0.10.0
+ */
+public class FlickableDialogPool {
+
+  private static FlickableDialogPool instance;
+
+  public static FlickableDialogPool getInstance() {
+    if (instance == null) instance = new FlickableDialogPool();
+    return instance;
+  }
+
+  static class Entry {
+    final Context context;
+    final View cardView;
+    // frame layout holding the card as content of the dialog, only when dialog is kept
+    @Nullable final FrameLayout frameLayout;
+    @Nullable final Dialog dialog;
+
+    Entry(Context context, View cardView, @Nullable FrameLayout frameLayout,
+        @Nullable Dialog dialog) {
+      this.context = context;
+      this.cardView = cardView;
+      this.frameLayout = frameLayout;
+      this.dialog = dialog;
+    }
+  }
+
+  private int maxSize;
+  private boolean keepDialog;
+  private Application application;
+
+  // access ordered, the eldest is the least recently used
+  private final LinkedHashMap<Integer, Entry> entries =
+      new LinkedHashMap<Integer, Entry>(8, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+          return size() > maxSize;
+        }
+      };
+
+  private final ComponentCallbacks2 componentCallbacks = new ComponentCallbacks2() {
+    @Override public void onTrimMemory(int level) {
+      if (level >= TRIM_MEMORY_RUNNING_LOW) {
+        clear();
+      } else if (level >= TRIM_MEMORY_RUNNING_MODERATE) {
+        trimToSize(entries.size() / 2);
+      }
+    }
+
+    @Override public void onConfigurationChanged(Configuration newConfig) {}
+
+    @Override public void onLowMemory() {
+      clear();
+    }
+  };
+
+  private final Application.ActivityLifecycleCallbacks activityLifecycleCallbacks =
+      new Application.ActivityLifecycleCallbacks() {
+        @Override public void onActivityCreated(Activity activity, Bundle savedInstanceState) {}
+
+        @Override public void onActivityStarted(Activity activity) {}
+
+        @Override public void onActivityResumed(Activity activity) {}
+
+        @Override public void onActivityPaused(Activity activity) {}
+
+        @Override public void onActivityStopped(Activity activity) {}
+
+        @Override public void onActivitySaveInstanceState(Activity activity, Bundle outState) {}
+
+        @Override public void onActivityDestroyed(Activity activity) {
+          // pooled views must not outlive the activity they are inflated for
+          final Iterator<Entry> iterator = entries.values().iterator();
+          while (iterator.hasNext()) {
+            if (iterator.next().context == activity) iterator.remove();
+          }
+        }
+      };
+
+  FlickableDialogPool() {}
+
+  /**
+   * @param maxSize number of layout resources kept in the pool (default : 0, pool disabled)
+   */
+  public void setMaxSize(int maxSize) {
+    this.maxSize = Math.max(0, maxSize);
+    trimToSize(this.maxSize);
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * @param keepDialog true to keep Dialog windows as well as card hierarchies (default : false)
+   */
+  public void setKeepDialog(boolean keepDialog) {
+    this.keepDialog = keepDialog;
+    if (!keepDialog) clear();
+  }
+
+  public boolean isKeepDialog() {
+    return keepDialog;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * whether hierarchy of the layout inflated for the context is pooled, without taking it out
+   */
+  boolean contains(Context context, @LayoutRes int layoutResource) {
+    final Entry entry = entries.get(layoutResource);
+    return entry != null && entry.context == context;
+  }
+
+  /**
+   * take out pooled hierarchy of the layout inflated for the context
+   *
+   * @return null when nothing usable is pooled
+   */
+  @Nullable Entry acquire(Context context, @LayoutRes int layoutResource) {
+    final Entry entry = entries.get(layoutResource);
+    if (entry == null || entry.context != context) return null;
+
+    entries.remove(layoutResource);
+    return entry;
+  }
+
+  /**
+   * put back hierarchy of dismissed dialog. The dialog is kept only when
+   * {@link #isKeepDialog()}, otherwise the card is detached from it.
+   *
+   * @param dialog null in overlay mode
+   */
+  void release(Context context, @LayoutRes int layoutResource, View cardView,
+      FrameLayout frameLayout, @Nullable Dialog dialog) {
+
+    if (maxSize == 0 || context == null) return;
+
+    register(context);
+    resetCard(cardView);
+
+    if (keepDialog && dialog != null) {
+      dialog.setOnCancelListener(null);
+      dialog.setOnDismissListener(null);
+      frameLayout.setOnClickListener(null);
+      frameLayout.animate().cancel();
+      frameLayout.setAlpha(1f);
+      if (dialog.getWindow() != null) {
+        final View decorView = dialog.getWindow().getDecorView();
+        decorView.animate().cancel();
+        decorView.setAlpha(1f);
+      }
+      entries.put(layoutResource, new Entry(context, cardView, frameLayout, dialog));
+    } else {
+      put(context, layoutResource, cardView);
+    }
+  }
+
+  /**
+   * put detached card hierarchy
+   */
+  void put(Context context, @LayoutRes int layoutResource, View cardView) {
+
+    if (maxSize == 0) return;
+
+    register(context);
+
+    final ViewGroup parent = (ViewGroup) cardView.getParent();
+    if (parent != null) parent.removeView(cardView);
+
+    entries.put(layoutResource, new Entry(context, cardView, null, null));
+  }
+
+  private void trimToSize(int size) {
+    final Iterator<Entry> iterator = entries.values().iterator();
+    while (entries.size() > size && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  private void register(Context context) {
+    if (application == context.getApplicationContext()) return;
+
+    if (application != null) {
+      application.unregisterComponentCallbacks(componentCallbacks);
+      application.unregisterActivityLifecycleCallbacks(activityLifecycleCallbacks);
+    }
+    application = (Application) context.getApplicationContext();
+    application.registerComponentCallbacks(componentCallbacks);
+    application.registerActivityLifecycleCallbacks(activityLifecycleCallbacks);
+  }
+
+  /**
+   * bring card back to the state just after inflation as far as flicking concerns
+   */
+  private static void resetCard(View cardView) {
+    cardView.animate().cancel();
+    cardView.setOnTouchListener(null);
+    cardView.setLayerType(View.LAYER_TYPE_NONE, null);
+    cardView.setTranslationX(0f);
+    cardView.setTranslationY(0f);
+    cardView.setRotation(0f);
+    cardView.setAlpha(1f);
+  }
+}
@@ -0,0 +1,214 @@
+package com.tkurimura.flickabledialog;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+import android.support.v4.app.FragmentActivity;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Shows dialogs of an activity one by one, in order of priority and then of enqueueing.
+ * A dialog is shown after the previous one is dismissed and the minimum interval has passed,
+ * up to the session cap. While a dialog is shown, the card of the next one is inflated in
+ * advance with {@link FlickableDialog#prewarm(android.app.Activity, int)}.
+ * Dialogs due while the activity state is saved are shown when it resumes, and pending dialogs
+ * are dropped when it is destroyed.
+ * Create one for each activity instance and access it from the main thread.
+ *
+ * @version 0.10.0
+ */
+public class FlickableDialogQueue {
+
+  public static final int PRIORITY_DEFAULT = 0;
+
+  private static class Entry {
+    final FlickableDialog dialog;
+    final String tag;
+    final int priority;
+    final long sequence;
+
+    Entry(FlickableDialog dialog, String tag, int priority, long sequence) {
+      this.dialog = dialog;
+      this.tag = tag;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+  }
+
+  private final FragmentActivity activity;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+
+  // higher priority first, then first in first out
+  private final PriorityQueue<Entry> pending = new PriorityQueue<>(8, new Comparator<Entry>() {
+    @Override public int compare(Entry lhs, Entry rhs) {
+      if (lhs.priority != rhs.priority) return lhs.priority > rhs.priority ? -1 : 1;
+      return lhs.sequence < rhs.sequence ? -1 : (lhs.sequence == rhs.sequence ? 0 : 1);
+    }
+  });
+
+  private long minimumInterval;
+  private int sessionCap = Integer.MAX_VALUE;
+
+  private long sequence;
+  private int shownCount;
+  @Nullable private FlickableDialog current;
+  private long lastDismissedTime = -1;
+  // fragment transactions are not allowed from onSaveInstanceState until resumed
+  private boolean stateSaved;
+
+  private final Runnable showNext = new Runnable() {
+    @Override public void run() {
+      showNextIfIdle();
+    }
+  };
+
+  private final Runnable onDismissed = new Runnable() {
+    @Override public void run() {
+      current = null;
+      lastDismissedTime = SystemClock.uptimeMillis();
+      // let the dismissing transaction finish before the next show
+      handler.post(showNext);
+    }
+  };
+
+  private final Application.ActivityLifecycleCallbacks activityLifecycleCallbacks =
+      new Application.ActivityLifecycleCallbacks() {
+        @Override public void onActivityCreated(Activity activity, Bundle savedInstanceState) {}
+
+        @Override public void onActivityStarted(Activity activity) {}
+
+        @Override public void onActivityResumed(Activity activity) {
+          if (activity != FlickableDialogQueue.this.activity || !stateSaved) return;
+          stateSaved = false;
+          // fragments are resumed after this callback
+          handler.post(showNext);
+        }
+
+        @Override public void onActivityPaused(Activity activity) {}
+
+        @Override public void onActivityStopped(Activity activity) {}
+
+        @Override public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+          if (activity == FlickableDialogQueue.this.activity) stateSaved = true;
+        }
+
+        @Override public void onActivityDestroyed(Activity activity) {
+          if (activity != FlickableDialogQueue.this.activity) return;
+          clear();
+          activity.getApplication().unregisterActivityLifecycleCallbacks(this);
+        }
+      };
+
+  public FlickableDialogQueue(FragmentActivity activity) {
+    this.activity = activity;
+    activity.getApplication().registerActivityLifecycleCallbacks(activityLifecycleCallbacks);
+  }
+
+  public void enqueue(FlickableDialog dialog, String tag) {
+    enqueue(dialog, tag, PRIORITY_DEFAULT);
+  }
+
+  /**
+   * @param priority dialog of higher priority is shown first
+   */
+  public void enqueue(FlickableDialog dialog, String tag, int priority) {
+    pending.add(new Entry(dialog, tag, priority, sequence++));
+
+    if (current == null) {
+      showNextIfIdle();
+    } else {
+      prewarmNext();
+    }
+  }
+
+  /**
+   * @param minimumInterval milliseconds from dismiss of a dialog to show of the next one
+   * (default : 0)
+   */
+  public void setMinimumInterval(long minimumInterval) {
+    this.minimumInterval = minimumInterval;
+  }
+
+  /**
+   * @param sessionCap max number of dialogs shown by this queue, the rest are dropped
+   * (default : unlimited)
+   */
+  public void setSessionCap(int sessionCap) {
+    this.sessionCap = sessionCap;
+  }
+
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  public int getShownCount() {
+    return shownCount;
+  }
+
+  public boolean isShowing() {
+    return current != null;
+  }
+
+  /**
+   * drop pending dialogs, the dialog being shown stays
+   */
+  public void clear() {
+    pending.clear();
+    handler.removeCallbacks(showNext);
+  }
+
+  private void showNextIfIdle() {
+
+    handler.removeCallbacks(showNext);
+
+    if (current != null || pending.isEmpty() || activity.isFinishing()) return;
+    // shown when the activity resumes
+    if (stateSaved) return;
+
+    if (shownCount >= sessionCap) {
+      pending.clear();
+      return;
+    }
+
+    if (lastDismissedTime >= 0) {
+      final long wait = lastDismissedTime + minimumInterval - SystemClock.uptimeMillis();
+      if (wait > 0) {
+        handler.postDelayed(showNext, wait);
+        return;
+      }
+    }
+
+    final Entry entry = pending.poll();
+    current = entry.dialog;
+    shownCount++;
+
+    entry.dialog.setOnDismissedHook(onDismissed);
+    entry.dialog.show(activity.getSupportFragmentManager(), entry.tag);
+
+    prewarmNext();
+  }
+
+  /**
+   * inflate the card of the next dialog while the current one is shown
+   */
+  private void prewarmNext() {
+
+    final Entry next = pending.peek();
+    if (next == null || shownCount >= sessionCap) return;
+    // deck dialogs have no card layout of their own
+    final int layoutResource = next.dialog.getLayoutResource();
+    if (layoutResource == 0) return;
+
+    // keep the next card when the current one is put back to the pool
+    final FlickableDialogPool pool = FlickableDialogPool.getInstance();
+    if (pool.getMaxSize() < 2) pool.setMaxSize(2);
+
+    FlickableDialog.prewarm(activity, layoutResource);
+  }
+}
@@ -0,0 +1,120 @@
+package com.tkurimura.flickabledialog;
+
+/**
+ * Distribution of frame intervals in fixed buckets of one millisecond, recorded without
+ * allocating. Intervals of {@link #BUCKET_COUNT} milliseconds or more share the last bucket.
+ *
+ * @version 0.10.0
+ * @see FlickableDialog#setOnFrameTimes(Listener)
+ */
+public class FrameTimeHistogram {
+
+  public interface Listener {
+    /**
+     * @param histogram frame times of a gesture from touch down until the card settles or is
+     * thrown away. It is reused for the next gesture, read it before returning.
+     */
+    void onFrameTimes(FrameTimeHistogram histogram);
+  }
+
+  public static final int BUCKET_COUNT = 64;
+
+  private static final long NANOS_PER_MILLI = 1000000L;
+
+  private final int[] buckets = new int[BUCKET_COUNT];
+  private final long frameIntervalNanos;
+
+  private long previousFrameNanos = -1;
+  private int frameCount;
+  private int droppedFrameCount;
+  private long maxIntervalNanos;
+
+  /**
+   * @param frameIntervalNanos expected interval of display refresh
+   */
+  public FrameTimeHistogram(long frameIntervalNanos) {
+    this.frameIntervalNanos = frameIntervalNanos;
+  }
+
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      buckets[i] = 0;
+    }
+    previousFrameNanos = -1;
+    frameCount = 0;
+    droppedFrameCount = 0;
+    maxIntervalNanos = 0;
+  }
+
+  /**
+   * @param frameTimeNanos frame time given by Choreographer
+   */
+  public void onFrame(long frameTimeNanos) {
+
+    final long previous = previousFrameNanos;
+    previousFrameNanos = frameTimeNanos;
+    if (previous < 0) return;
+
+    final long interval = frameTimeNanos - previous;
+    if (interval <= 0) return;
+
+    buckets[(int) Math.min(interval / NANOS_PER_MILLI, BUCKET_COUNT - 1)]++;
+    frameCount++;
+    if (interval > maxIntervalNanos) maxIntervalNanos = interval;
+
+    // frames which should have been drawn in the interval
+    final long frames = (interval + frameIntervalNanos / 2) / frameIntervalNanos;
+    if (frames > 1) droppedFrameCount += frames - 1;
+  }
+
+  /**
+   * @return number of recorded intervals
+   */
+  public int getFrameCount() {
+    return frameCount;
+  }
+
+  public int getDroppedFrameCount() {
+    return droppedFrameCount;
+  }
+
+  public float getMaxMillis() {
+    return maxIntervalNanos / (float) NANOS_PER_MILLI;
+  }
+
+  /**
+   * @param percentile 0 to 100
+   * @return upper bound of the bucket holding the percentile, 0 when nothing is recorded
+   */
+  public float getPercentileMillis(float percentile) {
+
+    if (frameCount == 0) return 0f;
+
+    final float rank = frameCount * percentile / 100f;
+    int count = 0;
+    for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+      count += buckets[i];
+      if (count >= rank) return i + 1;
+    }
+    return getMaxMillis();
+  }
+
+  public float getP50Millis() {
+    return getPercentileMillis(50f);
+  }
+
+  public float getP90Millis() {
+    return getPercentileMillis(90f);
+  }
+
+  public float getP99Millis() {
+    return getPercentileMillis(99f);
+  }
+
+  /**
+   * @return number of intervals in the bucket of [index, index + 1) milliseconds
+   */
+  public int getBucket(int index) {
+    return buckets[index];
+  }
+}
@@ -0,0 +1,174 @@
+package com.tkurimura.flickabledialog;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.support.v4.app.FragmentActivity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import com.flickabledialog.BuildConfig;
+import java.util.concurrent.CountDownLatch;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class BackdropBlurTest {
+
+  @After public void tearDown() {
+    ShadowLooper.unPauseMainLooper();
+    BackdropBlur.clearPool();
+  }
+
+  @Test public void backdrop_isAddedAfterFirstFrame() throws Exception {
+    FragmentActivity activity = setupActivity();
+
+    ShadowLooper.pauseMainLooper();
+    FlickableDialog dialog = show(activity);
+    assertNull(findBackdrop(dialog));
+
+    deliver();
+    assertNotNull(findBackdrop(dialog));
+  }
+
+  @Test public void dismissBeforeDelivery_putsBitmapBackToPool() throws Exception {
+    FragmentActivity activity = setupActivity();
+
+    // hold the blur thread so that the dialog goes before the blur is delivered
+    final CountDownLatch gate = new CountDownLatch(1);
+    BackdropBlur.executor().execute(new Runnable() {
+      @Override public void run() {
+        try {
+          gate.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+
+    ShadowLooper.pauseMainLooper();
+    FlickableDialog dialog = show(activity);
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    ViewGroup frameLayout = (ViewGroup) FlickableDialogTest.findCard(dialog).getParent();
+
+    dialog.dismiss();
+    activity.getSupportFragmentManager().executePendingTransactions();
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    gate.countDown();
+    deliver();
+
+    // canceled capture is not shown but pooled
+    assertNull(findBackdrop(frameLayout));
+    assertEquals(1, BackdropBlur.poolSize());
+
+    // and taken by the next show
+    FlickableDialog second = show(activity);
+    deliver();
+    assertNotNull(findBackdrop(second));
+    assertEquals(0, BackdropBlur.poolSize());
+  }
+
+  @Test public void secondShow_reusesPooledBitmap() throws Exception {
+    FragmentActivity activity = setupActivity();
+
+    ShadowLooper.pauseMainLooper();
+    FlickableDialog first = show(activity);
+    deliver();
+    Bitmap bitmap = bitmapOf(findBackdrop(first));
+
+    first.dismiss();
+    activity.getSupportFragmentManager().executePendingTransactions();
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    assertTrue(BackdropBlur.isPooled(bitmap));
+
+    FlickableDialog second = show(activity);
+    deliver();
+
+    assertSame(bitmap, bitmapOf(findBackdrop(second)));
+    assertFalse(BackdropBlur.isPooled(bitmap));
+  }
+
+  @Test public void release_evictsBitmapOfAnotherSize() {
+    Bitmap portrait1 = Bitmap.createBitmap(60, 100, Bitmap.Config.ARGB_8888);
+    Bitmap portrait2 = Bitmap.createBitmap(60, 100, Bitmap.Config.ARGB_8888);
+    Bitmap landscape1 = Bitmap.createBitmap(100, 60, Bitmap.Config.ARGB_8888);
+    Bitmap landscape2 = Bitmap.createBitmap(100, 60, Bitmap.Config.ARGB_8888);
+
+    BackdropBlur.release(portrait1);
+    BackdropBlur.release(portrait2);
+    // rotated
+    BackdropBlur.release(landscape1);
+    BackdropBlur.release(landscape2);
+
+    assertTrue(portrait1.isRecycled());
+    assertTrue(portrait2.isRecycled());
+    assertTrue(BackdropBlur.isPooled(landscape1));
+    assertTrue(BackdropBlur.isPooled(landscape2));
+  }
+
+  @Test public void release_evictsOldestOfSameSize() {
+    Bitmap first = Bitmap.createBitmap(60, 100, Bitmap.Config.ARGB_8888);
+    Bitmap second = Bitmap.createBitmap(60, 100, Bitmap.Config.ARGB_8888);
+    Bitmap third = Bitmap.createBitmap(60, 100, Bitmap.Config.ARGB_8888);
+
+    BackdropBlur.release(first);
+    BackdropBlur.release(second);
+    BackdropBlur.release(third);
+
+    assertTrue(first.isRecycled());
+    assertTrue(BackdropBlur.isPooled(second));
+    assertTrue(BackdropBlur.isPooled(third));
+  }
+
+  private static FragmentActivity setupActivity() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    // content to be captured
+    activity.findViewById(android.R.id.content).layout(0, 0, 480, 800);
+    return activity;
+  }
+
+  private static FlickableDialog show(FragmentActivity activity) {
+    FlickableDialog dialog = FlickableDialog.newInstance(android.R.layout.simple_list_item_1);
+    dialog.setBlurBackdrop(true);
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+    return dialog;
+  }
+
+  /**
+   * run the first frame, wait for the blur thread and run its delivery
+   */
+  private static void deliver() throws Exception {
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    BackdropBlur.executor().submit(new Runnable() {
+      @Override public void run() {}
+    }).get();
+    ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+  }
+
+  private static ImageView findBackdrop(FlickableDialog dialog) {
+    return findBackdrop((ViewGroup) FlickableDialogTest.findCard(dialog).getParent());
+  }
+
+  private static ImageView findBackdrop(ViewGroup frameLayout) {
+    // under the dim
+    View bottom = frameLayout.getChildAt(0);
+    return bottom instanceof ImageView ? (ImageView) bottom : null;
+  }
+
+  private static Bitmap bitmapOf(ImageView backdrop) {
+    return ((BitmapDrawable) backdrop.getDrawable()).getBitmap();
+  }
+}
@@ -0,0 +1,58 @@
+package com.tkurimura.flickabledialog;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BoxBlurTest {
+
+  @Test public void uniformPixels_stayUniform() {
+    final int width = 7;
+    final int height = 5;
+    int[] pixels = new int[width * height];
+    Arrays.fill(pixels, 0xff336699);
+
+    BoxBlur.blur(pixels, new int[pixels.length], width, height, 2);
+
+    for (int pixel : pixels) {
+      assertEquals(0xff336699, pixel);
+    }
+  }
+
+  @Test public void singlePixel_spreadsSymmetrically() {
+    final int size = 21;
+    int[] pixels = new int[size * size];
+    pixels[10 * size + 10] = 0xffffffff;
+
+    BoxBlur.blur(pixels, new int[pixels.length], size, size, 1);
+
+    final int center = pixels[10 * size + 10] & 0xff;
+    assertTrue(center > 0 && center < 0xff);
+    assertEquals(pixels[10 * size + 9], pixels[10 * size + 11]);
+    assertEquals(pixels[9 * size + 10], pixels[11 * size + 10]);
+    assertEquals(pixels[10 * size + 9], pixels[9 * size + 10]);
+    assertTrue((pixels[10 * size + 12] & 0xff) < (pixels[10 * size + 11] & 0xff));
+    // far corner is untouched
+    assertEquals(0, pixels[0]);
+  }
+
+  @Test public void nonSquareImage_keepsOrientation() {
+    final int width = 8;
+    final int height = 2;
+    int[] pixels = new int[width * height];
+    // left half white, right half black
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width / 2; x++) {
+        pixels[y * width + x] = 0xffffffff;
+      }
+    }
+
+    BoxBlur.blur(pixels, new int[pixels.length], width, height, 1);
+
+    assertEquals(0xffffffff, pixels[0]);
+    assertEquals(pixels[0], pixels[width]);
+    assertTrue((pixels[width - 1] & 0xff) < 0x10);
+  }
+}
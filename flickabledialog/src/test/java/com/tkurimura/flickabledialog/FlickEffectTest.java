@@ -0,0 +1,115 @@
+package com.tkurimura.flickabledialog;
+
+import android.support.v4.app.FragmentActivity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.animation.AccelerateInterpolator;
+import com.flickabledialog.BuildConfig;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static com.tkurimura.flickabledialog.FlickableDialogTest.drag;
+import static com.tkurimura.flickabledialog.FlickableDialogTest.findCard;
+import static com.tkurimura.flickabledialog.FlickableDialogTest.runFrames;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlickEffectTest {
+
+  private static final int RIGHT_TOP = FlickableDialogListener.X_DIRECTION.RIGHT_TOP;
+  private static final int LEFT_TOP = FlickableDialogListener.X_DIRECTION.LEFT_TOP;
+
+  @Test public void distance_mapsFromOriginToThreshold() {
+    View view = new View(RuntimeEnvironment.application);
+    FlickEffect effect = FlickEffect.alpha(view, 1f, 0f);
+
+    effect.apply(0.25f, -0.5f, RIGHT_TOP);
+    assertEquals(0.5f, view.getAlpha(), 0.001f);
+
+    // over dismiss threshold stays at to value
+    effect.apply(2f, 0f, RIGHT_TOP);
+    assertEquals(0f, view.getAlpha(), 0.001f);
+
+    effect.reset();
+    assertEquals(1f, view.getAlpha(), 0.001f);
+  }
+
+  @Test public void range_followsOnlyOneDirection() {
+    View view = new View(RuntimeEnvironment.application);
+    FlickEffect effect = FlickEffect.translationX(view, 0f, 100f)
+        .on(FlickEffect.HORIZONTAL)
+        .range(0f, -0.5f);
+
+    effect.apply(0.5f, 0f, RIGHT_TOP);
+    assertEquals(0f, view.getTranslationX(), 0.001f);
+
+    effect.apply(-0.25f, 0f, LEFT_TOP);
+    assertEquals(50f, view.getTranslationX(), 0.001f);
+  }
+
+  @Test public void quadrant_staysAtOriginInOtherQuadrants() {
+    View view = new View(RuntimeEnvironment.application);
+    FlickEffect effect = FlickEffect.scale(view, 1f, 2f).onQuadrant(RIGHT_TOP);
+
+    effect.apply(-0.5f, 0.5f, LEFT_TOP);
+    assertEquals(1f, view.getScaleX(), 0.001f);
+
+    effect.apply(0.5f, 0.5f, RIGHT_TOP);
+    assertEquals(1.5f, view.getScaleX(), 0.001f);
+    assertEquals(1.5f, view.getScaleY(), 0.001f);
+  }
+
+  @Test public void interpolator_curvesFraction() {
+    View view = new View(RuntimeEnvironment.application);
+    FlickEffect effect = FlickEffect.rotation(view, 0f, 100f)
+        .interpolator(new AccelerateInterpolator());
+
+    effect.apply(0.5f, 0f, RIGHT_TOP);
+    assertEquals(25f, view.getRotation(), 0.001f);
+  }
+
+  @Test public void overlay_bindsEffectsOnEveryShow() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    final ViewGroup decorView = (ViewGroup) activity.getWindow().getDecorView();
+    final int childCount = decorView.getChildCount();
+
+    final FlickableDialog dialog =
+        FlickableDialog.newInstance(android.R.layout.simple_list_item_1);
+    dialog.setPresentAsOverlay(true);
+    dialog.onCreateView(new FlickableDialog.OnCreateView() {
+      @Override public void onCreateView(View view) {
+        dialog.addFlickEffect(FlickEffect.scale(findCard((ViewGroup) view), 1f, 2f));
+      }
+    });
+
+    dialog.show(activity.getSupportFragmentManager(), "overlay");
+    activity.getSupportFragmentManager().executePendingTransactions();
+    View card = findCard((ViewGroup) decorView.getChildAt(childCount));
+    drag(card, 100f, 100f, 400f, 100f);
+    runFrames();
+    assertTrue(card.getScaleX() > 1f);
+
+    dialog.dismiss();
+    activity.getSupportFragmentManager().executePendingTransactions();
+    assertEquals(1f, card.getScaleX(), 0.001f);
+
+    // effects were removed with the view, the dialog shown again binds them again
+    dialog.show(activity.getSupportFragmentManager(), "overlay");
+    activity.getSupportFragmentManager().executePendingTransactions();
+    View shownAgain = findCard((ViewGroup) decorView.getChildAt(childCount));
+    drag(shownAgain, 100f, 100f, 400f, 100f);
+    runFrames();
+    assertTrue(shownAgain.getScaleX() > 1f);
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void on_rejectsUnknownProgress() {
+    View view = new View(RuntimeEnvironment.application);
+    FlickEffect.alpha(view, 1f, 0f).on(FlickEffect.DISTANCE + 1);
+  }
+}
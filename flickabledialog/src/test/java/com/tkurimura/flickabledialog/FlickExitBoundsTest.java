@@ -0,0 +1,53 @@
+package com.tkurimura.flickabledialog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlickExitBoundsTest {
+
+  private static final float VIEWPORT_WIDTH = 1080f;
+  private static final float VIEWPORT_HEIGHT = 1920f;
+
+  @Test public void rotatedBox_coversRotatedCorners() {
+    assertEquals(450f, FlickExitBounds.halfWidth(900f, 700f, 0f), 0.01f);
+    assertEquals(350f, FlickExitBounds.halfWidth(900f, 700f, 90f), 0.01f);
+    assertEquals(450f, FlickExitBounds.halfHeight(900f, 700f, -90f), 0.01f);
+    // (900 + 700) * cos(45) / 2
+    assertEquals(565.69f, FlickExitBounds.halfWidth(900f, 700f, 45f), 0.01f);
+  }
+
+  @Test public void horizontalThrow_stopsWhenLeftEdgeLeavesScreen() {
+    float distance = FlickExitBounds.exitDistance(540f, 960f, 450f, 350f, 1f, 0f,
+        VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+
+    assertEquals(1080f + 450f - 540f, distance, 0.01f);
+    assertTrue(FlickExitBounds.isOutside(540f + distance, 960f, 450f, 350f,
+        VIEWPORT_WIDTH, VIEWPORT_HEIGHT));
+    assertFalse(FlickExitBounds.isOutside(540f + distance - 1f, 960f, 450f, 350f,
+        VIEWPORT_WIDTH, VIEWPORT_HEIGHT));
+  }
+
+  @Test public void diagonalThrow_leavesThroughNearerEdge() {
+    final float direction = (float) Math.sqrt(0.5);
+    float distance = FlickExitBounds.exitDistance(540f, 960f, 450f, 350f, -direction,
+        -direction, VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+
+    // left edge is reached before top edge
+    assertEquals((540f + 450f) / direction, distance, 0.1f);
+    assertTrue(FlickExitBounds.isOutside(540f - distance * direction,
+        960f - distance * direction, 450f, 350f, VIEWPORT_WIDTH, VIEWPORT_HEIGHT));
+  }
+
+  @Test public void cardAlreadyOutside_needsNoDistance() {
+    assertEquals(0f, FlickExitBounds.exitDistance(-500f, 960f, 450f, 350f, -1f, 0f,
+        VIEWPORT_WIDTH, VIEWPORT_HEIGHT), 0f);
+  }
+
+  @Test public void zeroDirection_hasNoExit() {
+    assertEquals(-1f, FlickExitBounds.exitDistance(540f, 960f, 450f, 350f, 0f, 0f,
+        VIEWPORT_WIDTH, VIEWPORT_HEIGHT), 0f);
+  }
+}
@@ -0,0 +1,122 @@
+package com.tkurimura.flickabledialog;
+
+import java.lang.management.ManagementFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlickGestureEngineTest {
+
+  @Test public void move_followsFingerFromTouchedDownPosition() {
+    FlickGestureEngine engine = new FlickGestureEngine();
+
+    engine.down(500f, 400f, 300f, 400f);
+    engine.move(480f, 420f);
+    engine.move(450f, 430f);
+
+    assertEquals(-50, engine.getOffsetX());
+    assertEquals(30, engine.getOffsetY());
+    assertEquals(50, engine.getDeltaX());
+    assertEquals(-30, engine.getDeltaY());
+    // rotation follows the offset before the last move, touched at top area
+    assertEquals(-20f / -30f, engine.getRotation(), 0.0001f);
+  }
+
+  @Test public void percentages_areRelativeToDismissThreshold() {
+    FlickGestureEngine engine = new FlickGestureEngine();
+    engine.setDismissThreshold(100f);
+
+    engine.down(0f, 0f, 0f, 0f);
+    engine.move(50f, -25f);
+
+    assertEquals(0.5f, engine.getHorizontalPercentage(), 0.0001f);
+    assertEquals(0.25f, engine.getVerticalPercentage(), 0.0001f);
+    assertFalse(engine.isOverDismissThreshold());
+
+    engine.move(101f, -25f);
+    assertTrue(engine.isOverDismissThreshold());
+  }
+
+  @Test public void xDirection_isCategorizedByOffset() {
+    FlickGestureEngine engine = new FlickGestureEngine();
+
+    engine.setOffset(-10, 10);
+    engine.release(0);
+    assertEquals(FlickableDialogListener.X_DIRECTION.LEFT_BOTTOM, engine.getXDirection());
+    engine.setOffset(-10, -10);
+    engine.release(0);
+    assertEquals(FlickableDialogListener.X_DIRECTION.LEFT_TOP, engine.getXDirection());
+    engine.setOffset(10, 10);
+    engine.release(0);
+    assertEquals(FlickableDialogListener.X_DIRECTION.RIGHT_BOTTOM, engine.getXDirection());
+    engine.setOffset(10, -10);
+    engine.release(0);
+    assertEquals(FlickableDialogListener.X_DIRECTION.RIGHT_TOP, engine.getXDirection());
+  }
+
+  @Test public void release_throwsFastShortFlick() {
+    FlickGestureEngine engine = new FlickGestureEngine();
+    engine.setDismissThreshold(700f);
+    engine.setFlingThreshold(1000f, 16f);
+
+    engine.down(500f, 500f, 0f, 1000f);
+    engine.addSample(0, 500f, 500f);
+    for (int i = 1; i <= 5; i++) {
+      // 100px left every 8ms
+      engine.addSample(i * 8, 500f - i * 100f, 500f);
+      engine.move(500f - i * 100f, 500f);
+    }
+
+    assertFalse(engine.isOverDismissThreshold());
+    assertTrue(engine.release(40));
+    assertTrue(engine.isReleasedByFling());
+    assertEquals(-12500f, engine.getVelocityX(), 1f);
+    assertEquals(FlickableDialogListener.X_DIRECTION.LEFT_TOP, engine.getXDirection());
+    assertTrue(engine.getThrowTranslationX(400) < 10 * engine.getOffsetX());
+  }
+
+  @Test public void release_backsToOriginWhenFingerRestedBeforeRelease() {
+    FlickGestureEngine engine = new FlickGestureEngine();
+    engine.setFlingThreshold(1000f, 16f);
+
+    engine.down(500f, 500f, 0f, 1000f);
+    engine.addSample(0, 500f, 500f);
+    engine.addSample(8, 300f, 500f);
+    engine.move(300f, 500f);
+
+    assertFalse(engine.release(200));
+    assertFalse(engine.isReleasedByFling());
+  }
+
+  @Test public void move_allocatesNothing() {
+    com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    FlickGestureEngine engine = new FlickGestureEngine();
+    engine.down(0f, 0f, 0f, 100f);
+
+    // warm up so that the measured loop runs compiled code
+    runMoves(engine, 100000);
+
+    long overheadStart = threadMXBean.getThreadAllocatedBytes(threadId);
+    long overheadEnd = threadMXBean.getThreadAllocatedBytes(threadId);
+
+    long start = threadMXBean.getThreadAllocatedBytes(threadId);
+    runMoves(engine, 100000);
+    long end = threadMXBean.getThreadAllocatedBytes(threadId);
+
+    assertEquals(0L, (end - start) - (overheadEnd - overheadStart));
+  }
+
+  private static void runMoves(FlickGestureEngine engine, int count) {
+    for (int i = 0; i < count; i++) {
+      engine.move(i % 700, i % 500);
+      engine.getRotation();
+      engine.getHorizontalPercentage();
+      engine.getVerticalPercentage();
+    }
+  }
+}
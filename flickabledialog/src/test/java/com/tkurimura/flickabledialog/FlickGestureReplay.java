@@ -0,0 +1,159 @@
+package com.tkurimura.flickabledialog;
+
+import android.os.SystemClock;
+import android.support.v4.app.FragmentActivity;
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Replays a {@link FlickGestureTrace} against a FlickableDialog on Robolectric and reports what
+ * the gesture ended in, with CPU time and allocations of dispatching its events and of the frame
+ * callbacks which follow until the card settles.
+ */
+final class FlickGestureReplay {
+
+  enum Outcome {
+    FLICKED, ORIGIN_BACK, CANCELED, NONE
+  }
+
+  static final class Result {
+
+    Outcome outcome = Outcome.NONE;
+    int xDirection = -1;
+    // while dispatching the events
+    long cpuNanos;
+    // -1 when the JVM does not measure allocations
+    long allocatedBytes = -1;
+    // while running coalesced moves, effects, spring and fling frames until settled
+    long frameCpuNanos;
+    long frameAllocatedBytes = -1;
+
+    @Override public String toString() {
+      return outcome + (outcome == Outcome.FLICKED ? "(" + xDirection + ")" : "")
+          + " dispatch cpu=" + cpuNanos / 1000 + "us"
+          + " allocated=" + allocatedBytes + "B"
+          + " frames cpu=" + frameCpuNanos / 1000 + "us"
+          + " allocated=" + frameAllocatedBytes + "B";
+    }
+  }
+
+  private FlickGestureReplay() {}
+
+  static FlickGestureTrace load(String name) throws IOException {
+    final InputStream in =
+        FlickGestureReplay.class.getClassLoader().getResourceAsStream("traces/" + name + ".trace");
+    if (in == null) throw new IOException("no trace " + name);
+    try {
+      return FlickGestureTrace.readFrom(in);
+    } finally {
+      in.close();
+    }
+  }
+
+  static Result replay(FragmentActivity activity, FlickGestureTrace trace) {
+
+    final Result result = new Result();
+
+    final FlickableDialogTest.RecordingDialog dialog =
+        FlickableDialogTest.RecordingDialog.create(android.R.layout.simple_list_item_1);
+    dialog.setOnFlick(new FlickableDialogListener.OnFlickedXDirection() {
+      @Override public void onFlickableDialogFlicked(int xDirection) {
+        result.outcome = Outcome.FLICKED;
+        result.xDirection = xDirection;
+      }
+    });
+    dialog.setOnCancel(new FlickableDialogListener.OnCanceled() {
+      @Override public void onFlickableDialogCanceled() {
+        result.outcome = Outcome.CANCELED;
+      }
+    });
+    dialog.show(activity.getSupportFragmentManager(), "replay");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    final View card = FlickableDialogTest.findCard(dialog);
+    final View target =
+        trace.getTarget() == FlickGestureTrace.TARGET_CARD ? card : (View) card.getParent();
+
+    // events are built up front so that only the dialog is measured
+    final MotionEvent[] events = obtainEvents(trace, card.getLeft() - trace.originX,
+        card.getTop() - trace.originY);
+
+    final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    final long startCpu = threadBean.getCurrentThreadCpuTime();
+    final long startAllocated = allocatedBytes(threadBean);
+
+    for (MotionEvent event : events) {
+      target.dispatchTouchEvent(event);
+    }
+
+    result.cpuNanos = threadBean.getCurrentThreadCpuTime() - startCpu;
+    if (startAllocated >= 0) result.allocatedBytes = allocatedBytes(threadBean) - startAllocated;
+
+    // frame callbacks are a separate window, the looper also runs Robolectric's own tasks
+    final long frameStartCpu = threadBean.getCurrentThreadCpuTime();
+    final long frameStartAllocated = allocatedBytes(threadBean);
+
+    FlickableDialogTest.runFrames();
+
+    result.frameCpuNanos = threadBean.getCurrentThreadCpuTime() - frameStartCpu;
+    if (frameStartAllocated >= 0) {
+      result.frameAllocatedBytes = allocatedBytes(threadBean) - frameStartAllocated;
+    }
+
+    for (MotionEvent event : events) {
+      event.recycle();
+    }
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    if (result.outcome == Outcome.NONE && dialog.originBack) result.outcome = Outcome.ORIGIN_BACK;
+    return result;
+  }
+
+  private static MotionEvent[] obtainEvents(FlickGestureTrace trace, float shiftX, float shiftY) {
+
+    final long downTime = SystemClock.uptimeMillis();
+    final MotionEvent[] events = new MotionEvent[trace.eventCount];
+
+    for (int i = 0; i < trace.eventCount; i++) {
+      final int action = trace.actions[i];
+      final float x = trace.rawXs[i] + shiftX;
+      final float y = trace.rawYs[i] + shiftY;
+      final int historyStart = trace.historyStarts[i];
+      final int historyEnd = trace.historyStarts[i + 1];
+
+      final MotionEvent event;
+      if (historyStart == historyEnd) {
+        event = MotionEvent.obtain(downTime, downTime + trace.eventTimes[i], action, x, y, 0);
+      } else {
+        // the oldest sample opens the event and the others are batched in order
+        event = MotionEvent.obtain(downTime, downTime + trace.historicalTimes[historyStart],
+            action, x + trace.historicalXs[historyStart], y + trace.historicalYs[historyStart],
+            0);
+        for (int h = historyStart + 1; h < historyEnd; h++) {
+          event.addBatch(downTime + trace.historicalTimes[h], x + trace.historicalXs[h],
+              y + trace.historicalYs[h], 1f, 1f, 0);
+        }
+        event.addBatch(downTime + trace.eventTimes[i], x, y, 1f, 1f, 0);
+      }
+      events[i] = event;
+    }
+    return events;
+  }
+
+  private static long allocatedBytes(ThreadMXBean threadBean) {
+    if (threadBean instanceof com.sun.management.ThreadMXBean) {
+      final com.sun.management.ThreadMXBean hotSpotBean =
+          (com.sun.management.ThreadMXBean) threadBean;
+      if (hotSpotBean.isThreadAllocatedMemorySupported()
+          && hotSpotBean.isThreadAllocatedMemoryEnabled()) {
+        return hotSpotBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+}
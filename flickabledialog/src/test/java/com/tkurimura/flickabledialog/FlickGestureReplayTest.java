@@ -0,0 +1,117 @@
+package com.tkurimura.flickabledialog;
+
+import android.support.v4.app.FragmentActivity;
+import android.view.View;
+import com.flickabledialog.BuildConfig;
+import com.tkurimura.flickabledialog.FlickGestureReplay.Outcome;
+import com.tkurimura.flickabledialog.FlickGestureReplay.Result;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Replays the corpus of recorded gestures in src/test/resources/traces
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlickGestureReplayTest {
+
+  private static final int LEFT_TOP = FlickableDialogListener.X_DIRECTION.LEFT_TOP;
+  private static final int RIGHT_TOP = FlickableDialogListener.X_DIRECTION.RIGHT_TOP;
+  private static final int LEFT_BOTTOM = FlickableDialogListener.X_DIRECTION.LEFT_BOTTOM;
+
+  private FragmentActivity activity;
+
+  @Before public void setUp() {
+    activity = Robolectric.setupActivity(FragmentActivity.class);
+  }
+
+  @Test public void throwRightTop() throws Exception {
+    assertFlicked("throw_right_top", RIGHT_TOP);
+  }
+
+  @Test public void throwLeftBottom() throws Exception {
+    assertFlicked("throw_left_bottom", LEFT_BOTTOM);
+  }
+
+  @Test public void shortFastFling_isThrownByVelocity() throws Exception {
+    assertFlicked("fling_short_fast", RIGHT_TOP);
+  }
+
+  @Test public void slowDrag_comesBack() throws Exception {
+    assertOutcome("origin_back_slow", Outcome.ORIGIN_BACK);
+  }
+
+  @Test public void reverseAfterThreshold_comesBack() throws Exception {
+    assertOutcome("reverse_after_threshold", Outcome.ORIGIN_BACK);
+  }
+
+  @Test public void canceledGesture_comesBack() throws Exception {
+    assertOutcome("cancel_mid_drag", Outcome.ORIGIN_BACK);
+  }
+
+  @Test public void jitterAtOrigin_comesBack() throws Exception {
+    assertOutcome("jitter_at_origin", Outcome.ORIGIN_BACK);
+  }
+
+  @Test public void batchedHighRateSamples_throwLeftTop() throws Exception {
+    assertFlicked("batched_1000hz_left_top", LEFT_TOP);
+  }
+
+  @Test public void eventsOfSameTime_throwByDistance() throws Exception {
+    assertFlicked("zero_duration", RIGHT_TOP);
+  }
+
+  @Test public void outsideTap_cancels() throws Exception {
+    assertOutcome("outside_tap", Outcome.CANCELED);
+  }
+
+  @Test public void recordedGesture_replaysToSameOutcome() {
+    final List<FlickGestureTrace> traces = new ArrayList<>();
+
+    FlickableDialog dialog = FlickableDialog.newInstance(android.R.layout.simple_list_item_1);
+    dialog.setOnGestureRecorded(new FlickGestureTrace.Listener() {
+      @Override public void onGestureRecorded(FlickGestureTrace trace) {
+        traces.add(trace);
+      }
+    });
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    View card = FlickableDialogTest.findCard(dialog);
+    FlickableDialogTest.flick(card, 100f, 100f, 200f, 100f);
+    FlickableDialogTest.runFrames();
+    FlickableDialogTest.flick(card, 100f, 100f, 1000f, 50f);
+    FlickableDialogTest.runFrames();
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    assertEquals(2, traces.size());
+    assertEquals(12, traces.get(0).getEventCount());
+    assertEquals(Outcome.ORIGIN_BACK, FlickGestureReplay.replay(activity, traces.get(0)).outcome);
+
+    Result thrown = FlickGestureReplay.replay(activity, traces.get(1));
+    assertEquals(Outcome.FLICKED, thrown.outcome);
+    assertEquals(RIGHT_TOP, thrown.xDirection);
+  }
+
+  private void assertFlicked(String name, int xDirection) throws Exception {
+    Result result = assertOutcome(name, Outcome.FLICKED);
+    assertEquals(name, xDirection, result.xDirection);
+  }
+
+  private Result assertOutcome(String name, Outcome outcome) throws Exception {
+    FlickGestureTrace trace = FlickGestureReplay.load(name);
+    Result result = FlickGestureReplay.replay(activity, trace);
+
+    System.out.println(name + " " + trace + ": " + result);
+    assertEquals(name, outcome, result.outcome);
+    return result;
+  }
+}
@@ -0,0 +1,60 @@
+package com.tkurimura.flickabledialog;
+
+import java.io.IOException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class FlickGestureTraceTest {
+
+  private static final int ACTION_DOWN = 0;
+  private static final int ACTION_UP = 1;
+  private static final int ACTION_MOVE = 2;
+
+  @Test public void writtenTrace_readsBackSameEvents() throws Exception {
+    FlickGestureRecorder recorder = new FlickGestureRecorder();
+    recorder.begin(FlickGestureTrace.TARGET_CARD, 90f, 600f);
+    recorder.addEvent(ACTION_DOWN, 0, 540f, 800f);
+    recorder.addHistoricalSample(4, -20f, -2f);
+    recorder.addHistoricalSample(8, -10f, -1f);
+    recorder.addEvent(ACTION_MOVE, 12, 570f, 803f);
+    recorder.addEvent(ACTION_UP, 16, 570f, 803f);
+    FlickGestureTrace trace = recorder.build();
+
+    FlickGestureTrace read = FlickGestureTrace.fromByteArray(trace.toByteArray());
+
+    assertEquals(FlickGestureTrace.TARGET_CARD, read.getTarget());
+    assertEquals(90f, read.originX, 0f);
+    assertEquals(600f, read.originY, 0f);
+    assertEquals(3, read.getEventCount());
+    assertEquals(2, read.getHistoricalSampleCount());
+    assertEquals(16, read.getDurationMillis());
+    assertArrayEquals(new byte[] { ACTION_DOWN, ACTION_MOVE, ACTION_UP }, read.actions);
+    assertArrayEquals(new int[] { 0, 12, 16 }, read.eventTimes);
+    assertArrayEquals(new float[] { 540f, 570f, 570f }, read.rawXs, 0f);
+    assertArrayEquals(new int[] { 0, 0, 2, 2 }, read.historyStarts);
+    assertArrayEquals(new int[] { 4, 8 }, read.historicalTimes);
+    assertArrayEquals(new float[] { -2f, -1f }, read.historicalYs, 0f);
+  }
+
+  @Test public void recorder_growsOverInitialCapacity() throws Exception {
+    FlickGestureRecorder recorder = new FlickGestureRecorder();
+    recorder.begin(FlickGestureTrace.TARGET_OUTSIDE, 0f, 0f);
+    for (int i = 0; i < 1000; i++) {
+      recorder.addHistoricalSample(i, i, -i);
+      recorder.addEvent(ACTION_MOVE, i, i, i);
+    }
+
+    FlickGestureTrace trace = FlickGestureTrace.fromByteArray(recorder.build().toByteArray());
+
+    assertEquals(FlickGestureTrace.TARGET_OUTSIDE, trace.getTarget());
+    assertEquals(1000, trace.getEventCount());
+    assertEquals(1000, trace.getHistoricalSampleCount());
+    assertEquals(999f, trace.historicalXs[999], 0f);
+  }
+
+  @Test(expected = IOException.class) public void otherBytes_areRejected() throws Exception {
+    FlickGestureTrace.fromByteArray(new byte[] { 'P', 'N', 'G', 0, 1, 0 });
+  }
+}
@@ -0,0 +1,188 @@
+package com.tkurimura.flickabledialog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlickPhysicsAnimatorTest {
+
+  private static final long FRAME_NANOS = 16666667L;
+
+  @Test public void springBack_settlesAtOriginWithoutOvershoot() {
+    FakeFrameClock clock = new FakeFrameClock();
+    RecordingTarget target = new RecordingTarget();
+    RecordingListener listener = new RecordingListener();
+    FlickPhysicsAnimator animator = new FlickPhysicsAnimator(clock, target);
+
+    animator.springBack(300f, -120f, 10f, 0f, 0f, listener);
+    int frames = clock.runUntilIdle();
+
+    assertTrue(listener.ended);
+    assertFalse(listener.canceled);
+    assertEquals(0f, target.translationX, 0f);
+    assertEquals(0f, target.translationY, 0f);
+    assertEquals(0f, target.rotation, 0f);
+    assertEquals(0f, target.minTranslationX, 0f);
+    assertTrue("frames " + frames, frames < 30);
+  }
+
+  @Test public void springBack_startsFromReleaseVelocity() {
+    FakeFrameClock clock = new FakeFrameClock();
+    RecordingTarget target = new RecordingTarget();
+    FlickPhysicsAnimator animator = new FlickPhysicsAnimator(clock, target);
+
+    // still moving away from origin at release
+    animator.springBack(100f, 0f, 0f, 3000f, 0f, new RecordingListener());
+    clock.runFrames(2);
+
+    assertTrue(target.translationX > 100f);
+  }
+
+  @Test public void fling_reachesTargetSoonerWhenFaster() {
+    FakeFrameClock slowClock = new FakeFrameClock();
+    RecordingTarget slowTarget = new RecordingTarget();
+    RecordingListener slowListener = new RecordingListener();
+    new FlickPhysicsAnimator(slowClock, slowTarget).fling(100f, 0f, 0f, 1200f, 0f, 90f, 0f, 0f,
+        slowListener);
+    int slowFrames = slowClock.runUntilIdle();
+
+    FakeFrameClock fastClock = new FakeFrameClock();
+    RecordingTarget fastTarget = new RecordingTarget();
+    new FlickPhysicsAnimator(fastClock, fastTarget).fling(100f, 0f, 0f, 1200f, 0f, 90f, 30000f,
+        0f, new RecordingListener());
+    int fastFrames = fastClock.runUntilIdle();
+
+    assertTrue(slowListener.ended);
+    assertEquals(1200f, slowTarget.translationX, 0.01f);
+    assertEquals(90f, slowTarget.rotation, 0.01f);
+    assertEquals(1200f, fastTarget.translationX, 0.01f);
+    assertTrue(fastFrames + " < " + slowFrames, fastFrames < slowFrames);
+  }
+
+  @Test public void fling_durationMatchesFrames() {
+    FakeFrameClock clock = new FakeFrameClock();
+    FlickPhysicsAnimator animator = new FlickPhysicsAnimator(clock, new RecordingTarget());
+
+    animator.fling(0f, 0f, 0f, 0f, 800f, 0f, 0f, 0f, new RecordingListener());
+    long duration = animator.getFlingDuration();
+    int frames = clock.runUntilIdle();
+
+    // ln(2) / friction
+    assertEquals(173, duration);
+    assertEquals(duration * 1000000L / FRAME_NANOS + 1, frames);
+  }
+
+  @Test public void fling_twiceTheSpeedTakesHalfTheTime() {
+    FakeFrameClock clock = new FakeFrameClock();
+    RecordingTarget target = new RecordingTarget();
+    FlickPhysicsAnimator animator = new FlickPhysicsAnimator(clock, target);
+    animator.setSpeed(2f);
+
+    animator.fling(0f, 0f, 0f, 0f, 800f, 0f, 0f, 0f, new RecordingListener());
+    long duration = animator.getFlingDuration();
+    int frames = clock.runUntilIdle();
+
+    assertEquals(86, duration);
+    assertEquals(duration * 1000000L / FRAME_NANOS + 1, frames);
+    assertEquals(800f, target.translationY, 0.01f);
+  }
+
+  @Test public void cancel_endsAsCanceled() {
+    FakeFrameClock clock = new FakeFrameClock();
+    RecordingListener listener = new RecordingListener();
+    FlickPhysicsAnimator animator = new FlickPhysicsAnimator(clock, new RecordingTarget());
+
+    animator.springBack(300f, 0f, 0f, 0f, 0f, listener);
+    clock.runFrames(1);
+    animator.cancel();
+
+    assertTrue(listener.ended);
+    assertTrue(listener.canceled);
+    assertFalse(animator.isRunning());
+    assertEquals(0, clock.runUntilIdle());
+  }
+
+  @Test public void finishFromTarget_endsFlingWhereItIs() {
+    FakeFrameClock clock = new FakeFrameClock();
+    RecordingListener listener = new RecordingListener();
+    final FlickPhysicsAnimator[] animator = new FlickPhysicsAnimator[1];
+    RecordingTarget target = new RecordingTarget() {
+      @Override
+      public void onPhysicsFrame(float translationX, float translationY, float rotation) {
+        super.onPhysicsFrame(translationX, translationY, rotation);
+        // e.g. the card left the screen
+        if (translationX > 300f) animator[0].finish();
+      }
+    };
+    animator[0] = new FlickPhysicsAnimator(clock, target);
+
+    animator[0].fling(0f, 0f, 0f, 1200f, 0f, 0f, 0f, 0f, listener);
+    clock.runUntilIdle();
+
+    assertTrue(listener.ended);
+    assertFalse(listener.canceled);
+    assertFalse(animator[0].isRunning());
+    assertTrue(target.translationX > 300f && target.translationX < 1200f);
+    assertEquals(0, clock.runUntilIdle());
+  }
+
+  static class FakeFrameClock implements FlickPhysicsAnimator.FrameClock {
+
+    private long now;
+    private FlickPhysicsAnimator.FrameCallback callback;
+
+    @Override public void postFrameCallback(FlickPhysicsAnimator.FrameCallback callback) {
+      this.callback = callback;
+    }
+
+    @Override public void removeFrameCallback(FlickPhysicsAnimator.FrameCallback callback) {
+      if (this.callback == callback) this.callback = null;
+    }
+
+    void runFrames(int count) {
+      for (int i = 0; i < count && callback != null; i++) {
+        now += FRAME_NANOS;
+        FlickPhysicsAnimator.FrameCallback callback = this.callback;
+        this.callback = null;
+        callback.doFrame(now);
+      }
+    }
+
+    int runUntilIdle() {
+      int frames = 0;
+      while (callback != null && frames < 1000) {
+        runFrames(1);
+        frames++;
+      }
+      return frames;
+    }
+  }
+
+  static class RecordingTarget implements FlickPhysicsAnimator.Target {
+
+    float translationX;
+    float translationY;
+    float rotation;
+    float minTranslationX = Float.MAX_VALUE;
+
+    @Override public void onPhysicsFrame(float translationX, float translationY, float rotation) {
+      this.translationX = translationX;
+      this.translationY = translationY;
+      this.rotation = rotation;
+      minTranslationX = Math.min(minTranslationX, translationX);
+    }
+  }
+
+  static class RecordingListener implements FlickPhysicsAnimator.Listener {
+
+    boolean ended;
+    boolean canceled;
+
+    @Override public void onPhysicsEnd(boolean canceled) {
+      this.ended = true;
+      this.canceled = canceled;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.tkurimura.flickabledialog;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FlickQualityGovernorTest {
+
+  private static final long FRAME = 16666667L;
+
+  @After public void tearDown() {
+    FlickQualityGovernor.setAdaptive(false);
+    FlickQualityGovernor.setPolicy(null);
+    FlickQualityGovernor.reset();
+  }
+
+  @Test public void jankyGesture_stepsDownByOne() {
+    FlickQualityGovernor.setAdaptive(true);
+
+    FlickQualityGovernor.onGesture(gesture(30, 2));
+    assertEquals(FlickQualityGovernor.LEVEL_NO_FADE, FlickQualityGovernor.getLevel());
+
+    FlickQualityGovernor.onGesture(gesture(30, 2));
+    assertEquals(FlickQualityGovernor.LEVEL_NO_ROTATION, FlickQualityGovernor.getLevel());
+  }
+
+  @Test public void smoothGesture_keepsLevel() {
+    FlickQualityGovernor.setAdaptive(true);
+
+    FlickQualityGovernor.onGesture(gesture(30, 1));
+
+    assertEquals(FlickQualityGovernor.LEVEL_FULL, FlickQualityGovernor.getLevel());
+  }
+
+  @Test public void shortGesture_tellsNothing() {
+    FlickQualityGovernor.setAdaptive(true);
+
+    FlickQualityGovernor.onGesture(gesture(FlickQualityGovernor.MINIMUM_FRAMES - 1, 3));
+
+    assertEquals(FlickQualityGovernor.LEVEL_FULL, FlickQualityGovernor.getLevel());
+  }
+
+  @Test public void notAdaptive_keepsLevel() {
+    FlickQualityGovernor.onGesture(gesture(30, 3));
+
+    assertEquals(FlickQualityGovernor.LEVEL_FULL, FlickQualityGovernor.getLevel());
+  }
+
+  @Test public void level_stopsAtShortDuration() {
+    FlickQualityGovernor.setAdaptive(true);
+
+    for (int i = 0; i < 10; i++) {
+      FlickQualityGovernor.onGesture(gesture(30, 3));
+    }
+
+    assertEquals(FlickQualityGovernor.LEVEL_SHORT_DURATION, FlickQualityGovernor.getLevel());
+  }
+
+  @Test public void reset_backToFull() {
+    FlickQualityGovernor.setAdaptive(true);
+    FlickQualityGovernor.onGesture(gesture(30, 2));
+
+    FlickQualityGovernor.reset();
+
+    assertEquals(FlickQualityGovernor.LEVEL_FULL, FlickQualityGovernor.getLevel());
+  }
+
+  @Test public void policy_decidesLevelAndIsClamped() {
+    FlickQualityGovernor.setAdaptive(true);
+    FlickQualityGovernor.onGesture(gesture(30, 2));
+
+    final int[] given = new int[1];
+    FlickQualityGovernor.setPolicy(new FlickQualityGovernor.Policy() {
+      @Override public int selectLevel(int adaptiveLevel) {
+        given[0] = adaptiveLevel;
+        return adaptiveLevel + 1;
+      }
+    });
+    assertEquals(FlickQualityGovernor.LEVEL_NO_ROTATION, FlickQualityGovernor.getLevel());
+    assertEquals(FlickQualityGovernor.LEVEL_NO_FADE, given[0]);
+
+    FlickQualityGovernor.setPolicy(new FlickQualityGovernor.Policy() {
+      @Override public int selectLevel(int adaptiveLevel) {
+        return 10;
+      }
+    });
+    assertEquals(FlickQualityGovernor.LEVEL_SHORT_DURATION, FlickQualityGovernor.getLevel());
+  }
+
+  /**
+   * @param frameCount recorded intervals
+   * @param frames display frames each interval takes
+   */
+  private static FrameTimeHistogram gesture(int frameCount, int frames) {
+    FrameTimeHistogram histogram = new FrameTimeHistogram(FRAME);
+    for (int i = 0; i <= frameCount; i++) {
+      histogram.onFrame(i * frames * FRAME);
+    }
+    return histogram;
+  }
+}
@@ -0,0 +1,68 @@
+package com.tkurimura.flickabledialog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FlickVelocityTrackerTest {
+
+  @Test public void computeVelocity_constantSpeed() {
+    FlickVelocityTracker tracker = new FlickVelocityTracker();
+
+    for (int i = 0; i < 10; i++) {
+      // 2px right and 1px up every millisecond
+      tracker.addSample(i * 4, i * 8f, -i * 4f);
+    }
+    tracker.computeVelocity(36);
+
+    assertEquals(2000f, tracker.getVelocityX(), 0.1f);
+    assertEquals(-1000f, tracker.getVelocityY(), 0.1f);
+  }
+
+  @Test public void computeVelocity_onlySamplesWithinHorizon() {
+    FlickVelocityTracker tracker = new FlickVelocityTracker();
+
+    // slow move long ago
+    for (int i = 0; i < 10; i++) {
+      tracker.addSample(i * 10, i, 0f);
+    }
+    // fast move just before release
+    for (int i = 0; i <= 10; i++) {
+      tracker.addSample(1000 + i * 8, 100f + i * 80f, 0f);
+    }
+    tracker.computeVelocity(1080);
+
+    assertEquals(10000f, tracker.getVelocityX(), 0.1f);
+  }
+
+  @Test public void computeVelocity_overwritesOldestSamples() {
+    FlickVelocityTracker tracker = new FlickVelocityTracker();
+
+    for (int i = 0; i < FlickVelocityTracker.CAPACITY * 3; i++) {
+      tracker.addSample(i, i * 3f, 0f);
+    }
+    tracker.computeVelocity(FlickVelocityTracker.CAPACITY * 3 - 1);
+
+    assertEquals(3000f, tracker.getVelocityX(), 0.1f);
+  }
+
+  @Test public void computeVelocity_zeroWhenStopped() {
+    FlickVelocityTracker tracker = new FlickVelocityTracker();
+
+    tracker.addSample(0, 0f, 0f);
+    tracker.addSample(8, 100f, 0f);
+    tracker.computeVelocity(8 + FlickVelocityTracker.ASSUME_STOPPED_MILLIS + 1);
+
+    assertEquals(0f, tracker.getVelocityX(), 0f);
+  }
+
+  @Test public void computeVelocity_zeroWithSingleSample() {
+    FlickVelocityTracker tracker = new FlickVelocityTracker();
+
+    tracker.addSample(0, 10f, 10f);
+    tracker.computeVelocity(0);
+
+    assertEquals(0f, tracker.getVelocityX(), 0f);
+    assertEquals(0f, tracker.getVelocityY(), 0f);
+  }
+}
@@ -0,0 +1,79 @@
+package com.tkurimura.flickabledialog;
+
+import android.support.v4.app.FragmentActivity;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import com.flickabledialog.BuildConfig;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.tkurimura.flickabledialog.FlickableDialogTest.findCard;
+import static com.tkurimura.flickabledialog.FlickableDialogTest.flick;
+import static com.tkurimura.flickabledialog.FlickableDialogTest.runFrames;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlickableDeckDialogTest {
+
+  @Test public void flickingAllCards_recyclesStackViews() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    CountingAdapter adapter = new CountingAdapter(10);
+    final List<Integer> flickedPositions = new ArrayList<>();
+
+    FlickableDeckDialog dialog = FlickableDeckDialog.newInstance();
+    dialog.setAdapter(adapter);
+    dialog.setOnDeckCardFlicked(new FlickableDialogListener.OnDeckCardFlicked() {
+      @Override public void onDeckCardFlicked(int xDirection, int position) {
+        flickedPositions.add(position);
+      }
+    });
+    dialog.show(activity.getSupportFragmentManager(), "deck");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    for (int i = 0; i < 10; i++) {
+      View top = findCard(dialog);
+      assertEquals(String.valueOf(i), ((TextView) top).getText().toString());
+
+      flick(top, 100f, 100f, 1000f, 50f);
+      runFrames();
+    }
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    assertEquals(FlickableDeckDialog.STACK_SIZE, adapter.createdCount);
+    assertEquals(10, flickedPositions.size());
+    assertEquals(9, (int) flickedPositions.get(9));
+    assertFalse(dialog.isAdded());
+  }
+
+  static class CountingAdapter extends FlickableDeckDialog.Adapter {
+    final int count;
+    int createdCount;
+
+    CountingAdapter(int count) {
+      this.count = count;
+    }
+
+    @Override public int getCount() {
+      return count;
+    }
+
+    @Override public View onCreateCardView(LayoutInflater inflater, ViewGroup parent) {
+      createdCount++;
+      return inflater.inflate(android.R.layout.simple_list_item_1, parent, false);
+    }
+
+    @Override public void onBindCardView(View cardView, int position) {
+      ((TextView) cardView).setText(String.valueOf(position));
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.tkurimura.flickabledialog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlickableDialogMetricsTest {
+
+  @Test public void durations_areMeasuredFromTheirStart() {
+    FlickableDialogMetrics metrics = new FlickableDialogMetrics(1, false, 1000);
+
+    metrics.onInflated(1300, true);
+    metrics.onDraw(1600);
+    metrics.onDown(2000);
+    metrics.onMove();
+    metrics.onDraw(2050);
+    metrics.onRelease(3000);
+    metrics.onDismiss(3400);
+
+    assertEquals(300, metrics.getInflationNanos());
+    assertEquals(600, metrics.getFirstFrameNanos());
+    assertEquals(50, metrics.getTouchToMoveNanos());
+    assertEquals(400, metrics.getReleaseToDismissNanos());
+    assertEquals(FlickableDialogMetrics.NONE, metrics.getOutsideTapToDismissNanos());
+    assertTrue(metrics.isPooled());
+    assertFalse(metrics.isOverlay());
+  }
+
+  @Test public void touchToMove_measuresFirstGestureOnly() {
+    FlickableDialogMetrics metrics = new FlickableDialogMetrics(1, true, 0);
+
+    metrics.onDraw(10);
+    // drawn without moving
+    metrics.onDown(100);
+    metrics.onDraw(110);
+    metrics.onMove();
+    metrics.onDraw(130);
+
+    metrics.onDown(500);
+    metrics.onMove();
+    metrics.onDraw(520);
+
+    assertEquals(10, metrics.getFirstFrameNanos());
+    assertEquals(30, metrics.getTouchToMoveNanos());
+  }
+
+  @Test public void outsideTap_isMeasuredToDismiss() {
+    FlickableDialogMetrics metrics = new FlickableDialogMetrics(1, false, 0);
+
+    metrics.onOutsideTap(100);
+    metrics.onDismiss(400);
+
+    assertEquals(300, metrics.getOutsideTapToDismissNanos());
+    assertEquals(FlickableDialogMetrics.NONE, metrics.getReleaseToDismissNanos());
+    assertEquals(FlickableDialogMetrics.NONE, metrics.getTouchToMoveNanos());
+  }
+}
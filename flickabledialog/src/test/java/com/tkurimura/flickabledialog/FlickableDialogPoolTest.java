@@ -0,0 +1,144 @@
+package com.tkurimura.flickabledialog;
+
+import android.app.Dialog;
+import android.content.ComponentCallbacks2;
+import android.support.v4.app.FragmentActivity;
+import android.view.View;
+import com.flickabledialog.BuildConfig;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static com.tkurimura.flickabledialog.FlickableDialogTest.findCard;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlickableDialogPoolTest {
+
+  private final FlickableDialogPool pool = FlickableDialogPool.getInstance();
+
+  @After public void tearDown() {
+    pool.setMaxSize(0);
+    pool.setKeepDialog(false);
+  }
+
+  @Test public void reshow_reusesPooledCard() {
+    pool.setMaxSize(2);
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    FlickableDialog first = show(activity, android.R.layout.simple_list_item_1);
+    View card = findCard(first);
+    card.setTranslationX(100f);
+    dismiss(activity, first);
+
+    assertEquals(1, pool.size());
+
+    FlickableDialog second = show(activity, android.R.layout.simple_list_item_1);
+    assertSame(card, findCard(second));
+    assertEquals(0f, card.getTranslationX(), 0f);
+    assertEquals(0, pool.size());
+  }
+
+  @Test public void keepDialog_reusesPooledDialog() {
+    pool.setMaxSize(1);
+    pool.setKeepDialog(true);
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    FlickableDialog first = show(activity, android.R.layout.simple_list_item_1);
+    Dialog dialog = first.getDialog();
+    dismiss(activity, first);
+
+    FlickableDialog second = show(activity, android.R.layout.simple_list_item_1);
+    assertSame(dialog, second.getDialog());
+  }
+
+  @Test public void disabledByDefault() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    FlickableDialog first = show(activity, android.R.layout.simple_list_item_1);
+    View card = findCard(first);
+    dismiss(activity, first);
+
+    assertEquals(0, pool.size());
+    assertNotSame(card, findCard(show(activity, android.R.layout.simple_list_item_1)));
+  }
+
+  @Test public void evictsLeastRecentlyUsed() {
+    pool.setMaxSize(2);
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    pool.put(activity, 1, new View(activity));
+    pool.put(activity, 2, new View(activity));
+    pool.put(activity, 3, new View(activity));
+
+    assertEquals(2, pool.size());
+    assertNull(pool.acquire(activity, 1));
+  }
+
+  @Test public void acquire_ignoresOtherActivity() {
+    pool.setMaxSize(1);
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    FragmentActivity other = Robolectric.setupActivity(FragmentActivity.class);
+
+    pool.put(activity, 1, new View(activity));
+
+    assertNull(pool.acquire(other, 1));
+  }
+
+  @Test public void trimMemory_releasesEntries() {
+    pool.setMaxSize(2);
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    pool.put(activity, 1, new View(activity));
+    RuntimeEnvironment.application.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+
+    assertEquals(0, pool.size());
+  }
+
+  @Test public void prewarm_poolsCardTakenByShow() throws InterruptedException {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    assertEquals(0, pool.getMaxSize());
+
+    FlickableDialog.prewarm(activity, android.R.layout.simple_list_item_1);
+    assertEquals(1, pool.getMaxSize());
+
+    // inflation finishes on a background thread and is delivered through the main looper
+    for (int i = 0; i < 50 && !pool.contains(activity, android.R.layout.simple_list_item_1); i++) {
+      Thread.sleep(20);
+      ShadowLooper.runUiThreadTasks();
+    }
+    assertTrue(pool.contains(activity, android.R.layout.simple_list_item_1));
+
+    // peek the prewarmed card
+    View card = pool.acquire(activity, android.R.layout.simple_list_item_1).cardView;
+    pool.put(activity, android.R.layout.simple_list_item_1, card);
+
+    FlickableDialog dialog = show(activity, android.R.layout.simple_list_item_1);
+    assertSame(card, findCard(dialog));
+    assertFalse(pool.contains(activity, android.R.layout.simple_list_item_1));
+    assertEquals(0, pool.size());
+  }
+
+  private static FlickableDialog show(FragmentActivity activity, int layoutResource) {
+    FlickableDialog dialog = FlickableDialog.newInstance(layoutResource);
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+    return dialog;
+  }
+
+  private static void dismiss(FragmentActivity activity, FlickableDialog dialog) {
+    dialog.dismiss();
+    activity.getSupportFragmentManager().executePendingTransactions();
+  }
+}
@@ -0,0 +1,189 @@
+package com.tkurimura.flickabledialog;
+
+import android.os.Bundle;
+import android.support.v4.app.FragmentActivity;
+import com.flickabledialog.BuildConfig;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.util.ActivityController;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlickableDialogQueueTest {
+
+  @After public void tearDown() {
+    FlickableDialogPool.getInstance().setMaxSize(0);
+  }
+
+  @Test public void showsByPriorityThenInOrder() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    FlickableDialogQueue queue = new FlickableDialogQueue(activity);
+
+    FlickableDialog first = newDialog();
+    FlickableDialog low = newDialog();
+    FlickableDialog high = newDialog();
+    FlickableDialog high2 = newDialog();
+
+    queue.enqueue(first, "first");
+    queue.enqueue(low, "low", -1);
+    queue.enqueue(high, "high", 1);
+    queue.enqueue(high2, "high2", 1);
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    assertTrue(first.isAdded());
+    assertEquals(3, queue.getPendingCount());
+
+    dismiss(activity, first);
+    assertTrue(high.isAdded());
+
+    dismiss(activity, high);
+    assertTrue(high2.isAdded());
+
+    dismiss(activity, high2);
+    assertTrue(low.isAdded());
+  }
+
+  @Test public void waitsMinimumInterval() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    FlickableDialogQueue queue = new FlickableDialogQueue(activity);
+    queue.setMinimumInterval(1000);
+
+    FlickableDialog first = newDialog();
+    FlickableDialog second = newDialog();
+    queue.enqueue(first, "first");
+    queue.enqueue(second, "second");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    dismiss(activity, first);
+    assertFalse(second.isAdded());
+
+    ShadowLooper.idleMainLooper(1000);
+    activity.getSupportFragmentManager().executePendingTransactions();
+    assertTrue(second.isAdded());
+  }
+
+  @Test public void dropsDialogsOverSessionCap() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    FlickableDialogQueue queue = new FlickableDialogQueue(activity);
+    queue.setSessionCap(1);
+
+    FlickableDialog first = newDialog();
+    FlickableDialog second = newDialog();
+    queue.enqueue(first, "first");
+    queue.enqueue(second, "second");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    dismiss(activity, first);
+
+    assertFalse(second.isAdded());
+    assertEquals(1, queue.getShownCount());
+    assertEquals(0, queue.getPendingCount());
+  }
+
+  @Test public void showsAfterResumeWhenStateIsSaved() {
+    ActivityController<FragmentActivity> controller =
+        Robolectric.buildActivity(FragmentActivity.class).setup();
+    FragmentActivity activity = controller.get();
+    FlickableDialogQueue queue = new FlickableDialogQueue(activity);
+    queue.setMinimumInterval(1000);
+
+    FlickableDialog first = newDialog();
+    FlickableDialog second = newDialog();
+    queue.enqueue(first, "first");
+    queue.enqueue(second, "second");
+    activity.getSupportFragmentManager().executePendingTransactions();
+    dismiss(activity, first);
+
+    // the show comes due in the background, committing it would throw
+    controller.pause().saveInstanceState(new Bundle()).stop();
+    ShadowLooper.idleMainLooper(1000);
+    assertFalse(second.isAdded());
+    assertEquals(1, queue.getPendingCount());
+
+    controller.start().resume();
+    ShadowLooper.runUiThreadTasks();
+    activity.getSupportFragmentManager().executePendingTransactions();
+    assertTrue(second.isAdded());
+  }
+
+  @Test public void dropsPendingDialogsWhenDestroyed() {
+    ActivityController<FragmentActivity> controller =
+        Robolectric.buildActivity(FragmentActivity.class).setup();
+    FragmentActivity activity = controller.get();
+    FlickableDialogQueue queue = new FlickableDialogQueue(activity);
+    queue.setMinimumInterval(1000);
+
+    FlickableDialog first = newDialog();
+    FlickableDialog second = newDialog();
+    queue.enqueue(first, "first");
+    queue.enqueue(second, "second");
+    activity.getSupportFragmentManager().executePendingTransactions();
+    dismiss(activity, first);
+
+    controller.pause().stop().destroy();
+    ShadowLooper.idleMainLooper(1000);
+
+    assertFalse(second.isAdded());
+    assertEquals(0, queue.getPendingCount());
+  }
+
+  @Test public void prewarmsCardOfNextDialog() throws InterruptedException {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    FlickableDialogQueue queue = new FlickableDialogQueue(activity);
+
+    queue.enqueue(FlickableDialog.newInstance(android.R.layout.simple_list_item_2), "first");
+    queue.enqueue(newDialog(), "second");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    assertTrue(awaitPrewarmed(activity, android.R.layout.simple_list_item_1));
+  }
+
+  @Test public void deckDialogIsNotPrewarmed() throws InterruptedException {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    FlickableDialogQueue queue = new FlickableDialogQueue(activity);
+
+    FlickableDialog first = newDialog();
+    queue.enqueue(first, "first");
+    queue.enqueue(FlickableDeckDialog.newInstance(), "deck");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    // inflating layout 0 would throw on the main thread here
+    assertFalse(awaitPrewarmed(activity, 0));
+    assertTrue(first.isAdded());
+    assertEquals(1, queue.getPendingCount());
+    assertEquals(0, FlickableDialogPool.getInstance().size());
+  }
+
+  private static FlickableDialog newDialog() {
+    return FlickableDialog.newInstance(android.R.layout.simple_list_item_1);
+  }
+
+  /**
+   * run main thread tasks until AsyncLayoutInflater puts the card into the pool
+   */
+  private static boolean awaitPrewarmed(FragmentActivity activity, int layoutResource)
+      throws InterruptedException {
+    for (int i = 0; i < 50; i++) {
+      ShadowLooper.runUiThreadTasks();
+      if (FlickableDialogPool.getInstance().contains(activity, layoutResource)) return true;
+      Thread.sleep(20);
+    }
+    return false;
+  }
+
+  private static void dismiss(FragmentActivity activity, FlickableDialog dialog) {
+    dialog.dismiss();
+    activity.getSupportFragmentManager().executePendingTransactions();
+    ShadowLooper.runUiThreadTasks();
+    activity.getSupportFragmentManager().executePendingTransactions();
+  }
+}
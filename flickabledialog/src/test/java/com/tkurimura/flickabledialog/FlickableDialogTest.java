@@ -0,0 +1,352 @@
+package com.tkurimura.flickabledialog;
+
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.support.v4.app.FragmentActivity;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import com.flickabledialog.BuildConfig;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlickableDialogTest {
+
+  private static final int DRAG_MOVES = 10;
+
+  @After public void tearDown() {
+    FlickQualityGovernor.setPolicy(null);
+  }
+
+  @Test public void showAndFlick_createsNoComputationThreads() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    final int[] flickedDirection = { -1 };
+    FlickableDialog dialog = FlickableDialog.newInstance(android.R.layout.simple_list_item_1);
+    dialog.setOnFlick(new FlickableDialogListener.OnFlickedXDirection() {
+      @Override public void onFlickableDialogFlicked(int xDirection) {
+        flickedDirection[0] = xDirection;
+      }
+    });
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    View card = findCard(dialog);
+
+    // released inside threshold comes back to origin
+    flick(card, 100f, 100f, 200f, 100f);
+    runFrames();
+
+    // released outside threshold is thrown to right top
+    flick(card, 100f, 100f, 1000f, 50f);
+    runFrames();
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    assertEquals(FlickableDialogListener.X_DIRECTION.RIGHT_TOP, flickedDirection[0]);
+    assertFalse(dialog.isAdded());
+
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      assertFalse(thread.getName(), thread.getName().startsWith("RxComputation"));
+    }
+  }
+
+  @Test public void canceledGesture_comesBackWithoutFlick() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    final boolean[] flicked = { false };
+    RecordingDialog dialog = RecordingDialog.create(android.R.layout.simple_list_item_1);
+    dialog.setOnFlick(new FlickableDialogListener.OnFlickedXDirection() {
+      @Override public void onFlickableDialogFlicked(int xDirection) {
+        flicked[0] = true;
+      }
+    });
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    View card = findCard(dialog);
+
+    // dragged fast over dismiss threshold, then taken away e.g. by the system
+    final long downTime = drag(card, 100f, 100f, 1000f, 50f);
+    dispatch(card, downTime, downTime + 176, MotionEvent.ACTION_CANCEL, 1000f, 50f);
+    runFrames();
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    assertFalse(flicked[0]);
+    assertTrue(dialog.isAdded());
+    assertTrue(dialog.originBack);
+    assertEquals(0f, card.getTranslationX(), 0.5f);
+    assertEquals(0f, card.getTranslationY(), 0.5f);
+    assertEquals(0f, card.getRotation(), 0.5f);
+  }
+
+  @Test public void noRotationLevel_keepsCardUprightWhileDraggedAndThrown() {
+    FlickQualityGovernor.setPolicy(fixedLevel(FlickQualityGovernor.LEVEL_NO_ROTATION));
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    FlickableDialog dialog = FlickableDialog.newInstance(android.R.layout.simple_list_item_1);
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    View card = findCard(dialog);
+    final long downTime = drag(card, 100f, 100f, 1000f, 50f);
+    assertTrue(card.getTranslationX() > 0f);
+    assertEquals(0f, card.getRotation(), 0f);
+
+    dispatch(card, downTime, downTime + DRAG_MOVES * 16, MotionEvent.ACTION_UP, 1000f, 50f);
+    for (int i = 0; i < 200; i++) {
+      ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+      assertEquals(0f, card.getRotation(), 0f);
+    }
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    assertFalse(dialog.isAdded());
+  }
+
+  @Test public void noFadeLevel_dismissesAtOnceOnOutsideTap() {
+    FlickQualityGovernor.setPolicy(fixedLevel(FlickQualityGovernor.LEVEL_NO_FADE));
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    final boolean[] canceled = { false };
+    FlickableDialog dialog = FlickableDialog.newInstance(android.R.layout.simple_list_item_1);
+    dialog.setOnCancel(new FlickableDialogListener.OnCanceled() {
+      @Override public void onFlickableDialogCanceled() {
+        canceled[0] = true;
+      }
+    });
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    View frameLayout = (View) findCard(dialog).getParent();
+    // shown without fading in
+    assertEquals(1f, findCard(dialog).getAlpha(), 0f);
+
+    frameLayout.performClick();
+    // no frame runs for a fade out
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    assertTrue(canceled[0]);
+    assertFalse(dialog.isAdded());
+  }
+
+  @Test public void dimFollowsDrag_lightensHalfwayAndComesBack() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    RecordingDialog dialog = RecordingDialog.create(android.R.layout.simple_list_item_1);
+    dialog.setDimFollowsDrag(true);
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+    // let the dim fade in
+    runFrames();
+
+    View card = findCard(dialog);
+    View dim = ((ViewGroup) card.getParent()).getChildAt(0);
+    assertEquals(1f, dim.getAlpha(), 0.01f);
+
+    // half of the dismiss threshold of 700px, held still before release
+    final long downTime = SystemClock.uptimeMillis();
+    dispatch(card, downTime, downTime, MotionEvent.ACTION_DOWN, 100f, 100f);
+    dispatch(card, downTime, downTime + 200, MotionEvent.ACTION_MOVE, 450f, 100f);
+    assertEquals(0.5f, dim.getAlpha(), 0.01f);
+
+    dispatch(card, downTime, downTime + 400, MotionEvent.ACTION_MOVE, 450f, 100f);
+    dispatch(card, downTime, downTime + 420, MotionEvent.ACTION_UP, 450f, 100f);
+    runFrames();
+
+    assertTrue(dialog.originBack);
+    assertEquals(1f, dim.getAlpha(), 0.01f);
+  }
+
+  @Test public void coalesceTouchEvents_callsOnFlickingOncePerFrame() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    RecordingDialog dialog = RecordingDialog.create(android.R.layout.simple_list_item_1);
+    dialog.setCoalesceTouchEvents(true);
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    View card = findCard(dialog);
+    final long downTime = SystemClock.uptimeMillis();
+
+    dispatch(card, downTime, downTime, MotionEvent.ACTION_DOWN, 100f, 100f);
+    for (int i = 1; i <= 4; i++) {
+      dispatch(card, downTime, downTime + i * 4, MotionEvent.ACTION_MOVE, 100f + i * 10f, 100f);
+    }
+    assertEquals(1, dialog.flickingCount);
+
+    runFrames();
+
+    assertEquals(2, dialog.flickingCount);
+    assertEquals(40f, card.getTranslationX(), 0f);
+  }
+
+  @Test public void coalesceOnFlicking_movesCardOnEveryEventAndCallsBackOncePerFrame() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    RecordingDialog dialog = RecordingDialog.create(android.R.layout.simple_list_item_1);
+    dialog.setCoalesceOnFlicking(true);
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    View card = findCard(dialog);
+    final long downTime = SystemClock.uptimeMillis();
+
+    dispatch(card, downTime, downTime, MotionEvent.ACTION_DOWN, 100f, 100f);
+    for (int i = 1; i <= 4; i++) {
+      dispatch(card, downTime, downTime + i * 4, MotionEvent.ACTION_MOVE, 100f + i * 10f, 100f);
+    }
+    assertEquals(1, dialog.flickingCount);
+    assertEquals(40f, card.getTranslationX(), 0f);
+
+    runFrames();
+
+    assertEquals(2, dialog.flickingCount);
+  }
+
+  @Test public void onFlickingThreshold_skipsSmallChangesButNotRelease() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+
+    RecordingDialog dialog = RecordingDialog.create(android.R.layout.simple_list_item_1);
+    dialog.setOnFlickingThreshold(1000f);
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    View card = findCard(dialog);
+    final long downTime = SystemClock.uptimeMillis();
+
+    dispatch(card, downTime, downTime, MotionEvent.ACTION_DOWN, 100f, 100f);
+    for (int i = 1; i <= 4; i++) {
+      dispatch(card, downTime, downTime + i * 4, MotionEvent.ACTION_MOVE, 100f + i, 100f);
+    }
+    assertEquals(1, dialog.flickingCount);
+
+    dispatch(card, downTime, downTime + 20, MotionEvent.ACTION_UP, 104f, 100f);
+    assertEquals(2, dialog.flickingCount);
+  }
+
+  @Test public void presentAsOverlay_attachesToActivityAndCancelsByBackKey() {
+    FragmentActivity activity = Robolectric.setupActivity(FragmentActivity.class);
+    ViewGroup decorView = (ViewGroup) activity.getWindow().getDecorView();
+    final int childCount = decorView.getChildCount();
+
+    final boolean[] canceled = { false };
+    FlickableDialog dialog = FlickableDialog.newInstance(android.R.layout.simple_list_item_1);
+    dialog.setPresentAsOverlay(true);
+    dialog.setOnCancel(new FlickableDialogListener.OnCanceled() {
+      @Override public void onFlickableDialogCanceled() {
+        canceled[0] = true;
+      }
+    });
+    dialog.show(activity.getSupportFragmentManager(), "dialog");
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    assertNull(dialog.getDialog());
+    assertEquals(childCount + 1, decorView.getChildCount());
+
+    View overlay = decorView.getChildAt(childCount);
+    overlay.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_BACK));
+    overlay.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_UP, KeyEvent.KEYCODE_BACK));
+    activity.getSupportFragmentManager().executePendingTransactions();
+
+    assertTrue(canceled[0]);
+    assertFalse(dialog.isAdded());
+    assertEquals(childCount, decorView.getChildCount());
+  }
+
+  /**
+   * records overridable callbacks, shared by tests of the dialog
+   */
+  public static class RecordingDialog extends FlickableDialog {
+
+    int flickingCount;
+    boolean originBack;
+
+    static RecordingDialog create(int layoutResource) {
+      Bundle bundle = new Bundle();
+      bundle.putInt(LAYOUT_RESOURCE_KEY, layoutResource);
+
+      RecordingDialog dialog = new RecordingDialog();
+      dialog.setArguments(bundle);
+      return dialog;
+    }
+
+    @Override public void onFlicking(float verticalPercentage, float horizontalPercentage) {
+      flickingCount++;
+    }
+
+    @Override public void onOriginBack() {
+      originBack = true;
+    }
+  }
+
+  /**
+   * run frame callbacks until animations settle
+   */
+  static void runFrames() {
+    for (int i = 0; i < 200; i++) {
+      ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+  }
+
+  private static FlickQualityGovernor.Policy fixedLevel(final int level) {
+    return new FlickQualityGovernor.Policy() {
+      @Override public int selectLevel(int adaptiveLevel) {
+        return level;
+      }
+    };
+  }
+
+  static View findCard(FlickableDialog dialog) {
+    ViewGroup content =
+        (ViewGroup) dialog.getDialog().getWindow().getDecorView().findViewById(android.R.id.content);
+    return findCard((ViewGroup) content.getChildAt(0));
+  }
+
+  /**
+   * @param frameLayout root of the dialog, also of an overlay
+   */
+  static View findCard(ViewGroup frameLayout) {
+    // the card is on the dim
+    return frameLayout.getChildAt(frameLayout.getChildCount() - 1);
+  }
+
+  static void flick(View card, float fromX, float fromY, float toX, float toY) {
+    final long downTime = drag(card, fromX, fromY, toX, toY);
+    dispatch(card, downTime, downTime + DRAG_MOVES * 16, MotionEvent.ACTION_UP, toX, toY);
+  }
+
+  /**
+   * touch down and move without release
+   *
+   * @return down time of the gesture
+   */
+  static long drag(View card, float fromX, float fromY, float toX, float toY) {
+    final long downTime = SystemClock.uptimeMillis();
+
+    dispatch(card, downTime, downTime, MotionEvent.ACTION_DOWN, fromX, fromY);
+    for (int i = 1; i <= DRAG_MOVES; i++) {
+      dispatch(card, downTime, downTime + i * 16, MotionEvent.ACTION_MOVE,
+          fromX + (toX - fromX) * i / DRAG_MOVES, fromY + (toY - fromY) * i / DRAG_MOVES);
+    }
+    return downTime;
+  }
+
+  static void dispatch(View card, long downTime, long eventTime, int action, float x,
+      float y) {
+    MotionEvent event = MotionEvent.obtain(downTime, eventTime, action, x, y, 0);
+    card.dispatchTouchEvent(event);
+    event.recycle();
+  }
+}
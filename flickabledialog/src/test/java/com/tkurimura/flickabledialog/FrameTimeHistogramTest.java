@@ -0,0 +1,63 @@
+package com.tkurimura.flickabledialog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameTimeHistogramTest {
+
+  private static final long FRAME = 16666667L;
+
+  @Test public void smoothFrames_dropNothing() {
+    FrameTimeHistogram histogram = new FrameTimeHistogram(FRAME);
+
+    for (int i = 0; i <= 100; i++) {
+      histogram.onFrame(i * FRAME);
+    }
+
+    assertEquals(100, histogram.getFrameCount());
+    assertEquals(0, histogram.getDroppedFrameCount());
+    assertEquals(17f, histogram.getP50Millis(), 0f);
+    assertEquals(17f, histogram.getP99Millis(), 0f);
+  }
+
+  @Test public void longFrames_areCountedAsDropped() {
+    FrameTimeHistogram histogram = new FrameTimeHistogram(FRAME);
+
+    long time = 0;
+    histogram.onFrame(time);
+    for (int i = 0; i < 90; i++) {
+      time += FRAME;
+      histogram.onFrame(time);
+    }
+    // 9 frames skipping one frame each, 1 frame of 100ms
+    for (int i = 0; i < 9; i++) {
+      time += 2 * FRAME;
+      histogram.onFrame(time);
+    }
+    time += 100000000L;
+    histogram.onFrame(time);
+
+    assertEquals(100, histogram.getFrameCount());
+    assertEquals(9 + 5, histogram.getDroppedFrameCount());
+    assertEquals(17f, histogram.getP50Millis(), 0f);
+    assertEquals(17f, histogram.getP90Millis(), 0f);
+    assertEquals(34f, histogram.getP99Millis(), 0f);
+    // beyond the last bucket
+    assertEquals(100f, histogram.getPercentileMillis(100f), 0f);
+    assertEquals(100f, histogram.getMaxMillis(), 0f);
+  }
+
+  @Test public void reset_clearsRecord() {
+    FrameTimeHistogram histogram = new FrameTimeHistogram(FRAME);
+
+    histogram.onFrame(0);
+    histogram.onFrame(FRAME * 3);
+    histogram.reset();
+    histogram.onFrame(FRAME * 10);
+
+    assertEquals(0, histogram.getFrameCount());
+    assertEquals(0, histogram.getDroppedFrameCount());
+    assertEquals(0f, histogram.getP50Millis(), 0f);
+  }
+}